@@ -10,13 +10,13 @@ import mca.core.MCA;
 import mca.entity.EntityVillagerMCA;
 import mca.enums.EnumConstraint;
 import mca.enums.EnumGender;
+import mca.util.FieldAccessor;
 import mca.util.Util;
 import net.minecraft.client.gui.GuiButton;
 import net.minecraft.client.gui.GuiScreen;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.StringUtils;
-import net.minecraftforge.fml.common.ObfuscationReflectionHelper;
 import net.minecraftforge.fml.common.registry.VillagerRegistry;
 import org.apache.commons.io.IOUtils;
 
@@ -31,6 +31,8 @@ import java.util.*;
 public class API {
     private static Map<String, Gift> giftMap = new HashMap<>();
     private static Map<String, APIButton[]> buttonMap = new HashMap<>();
+    private static Map<String, Integer> buttonNetworkIds = new HashMap<>();
+    private static List<String[]> networkButtons = new ArrayList<>();
     private static List<String> maleNames = new ArrayList<>();
     private static List<String> femaleNames = new ArrayList<>();
     private static List<SkinsGroup> skinGroups = new ArrayList<>();
@@ -66,6 +68,15 @@ public class API {
         buttonMap.put("work", Util.readResourceAsJSON("api/gui/work.json", APIButton[].class));
         buttonMap.put("location", Util.readResourceAsJSON("api/gui/location.json", APIButton[].class));
 
+        // Number every button so that network messages can refer to them compactly.
+        // Both sides read the same files, so sorting the GUI keys makes the numbering identical on each.
+        buttonMap.keySet().stream().sorted().forEach(guiKey -> {
+            for (APIButton button : buttonMap.get(guiKey)) {
+                buttonNetworkIds.putIfAbsent(guiKey + "/" + button.getIdentifier(), networkButtons.size());
+                networkButtons.add(new String[]{guiKey, button.getIdentifier()});
+            }
+        });
+
         // Load gifts and assign to the appropriate map with a key value pair and print warnings on potential issues
         Gift[] gifts = Util.readResourceAsJSON("api/gifts.json", Gift[].class);
         for (Gift gift : gifts) {
@@ -175,7 +186,7 @@ public class API {
      * @param screen   GuiScreen instance the buttons should be added to
      */
     public static void addButtons(String guiKey, @Nullable EntityVillagerMCA villager, EntityPlayer player, GuiScreen screen) {
-        List<GuiButton> buttonList = ObfuscationReflectionHelper.getPrivateValue(GuiScreen.class, screen, Constants.GUI_SCREEN_BUTTON_LIST_FIELD_INDEX);
+        List<GuiButton> buttonList = ButtonListAccessor.BUTTON_LIST.get(screen);
         for (APIButton b : buttonMap.get(guiKey)) {
             GuiButtonEx guiButton = new GuiButtonEx(screen, b);
             buttonList.add(guiButton);
@@ -194,6 +205,28 @@ public class API {
         }
     }
 
+    /**
+     * Returns the network ID of a button, used to send button presses without their string keys
+     *
+     * @param guiKey     String key for the GUI containing the button
+     * @param identifier String identifier of the button
+     * @return Network ID of the button, or -1 if the button is not defined for the GUI
+     */
+    public static int getButtonNetworkId(String guiKey, String identifier) {
+        return buttonNetworkIds.getOrDefault(guiKey + "/" + identifier, -1);
+    }
+
+    /**
+     * Returns the GUI key and identifier of a button from its network ID
+     *
+     * @param networkId Network ID as returned by getButtonNetworkId
+     * @return Array of the GUI key followed by the button identifier, or null if no button has the network ID
+     */
+    @Nullable
+    public static String[] getButtonByNetworkId(int networkId) {
+        return networkId >= 0 && networkId < networkButtons.size() ? networkButtons.get(networkId) : null;
+    }
+
     /**
      * Returns an instance of the button linked to the given ID on the provided GuiScreen
      *
@@ -202,10 +235,17 @@ public class API {
      * @return GuiButtonEx matching the provided id
      */
     public static Optional<GuiButtonEx> getButton(String id, GuiScreen screen) {
-        List<GuiButton> buttonList = ObfuscationReflectionHelper.getPrivateValue(GuiScreen.class, screen, Constants.GUI_SCREEN_BUTTON_LIST_FIELD_INDEX);
+        List<GuiButton> buttonList = ButtonListAccessor.BUTTON_LIST.get(screen);
         Optional<GuiButton> button = buttonList.stream().filter(
                 (b) -> b instanceof GuiButtonEx && ((GuiButtonEx) b).getApiButton().getIdentifier().equals(id)).findFirst();
 
         return button.map(guiButton -> (GuiButtonEx) guiButton);
     }
+
+    /**
+     * Holds the GuiScreen accessor separately so that the client-only class is only loaded when a GUI needs it.
+     */
+    private static class ButtonListAccessor {
+        private static final FieldAccessor<GuiScreen, List<GuiButton>> BUTTON_LIST = new FieldAccessor<>(GuiScreen.class, Constants.GUI_SCREEN_BUTTON_LIST_FIELD_INDEX);
+    }
 }
@@ -0,0 +1,20 @@
+package mca.client;
+
+import mca.client.network.ClientMessageQueue;
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.client.event.RenderGameOverlayEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+/**
+ * Event handlers that only exist on the client, registered through the ClientProxy.
+ */
+public class ClientEventHooks {
+    @SubscribeEvent
+    public void onDebugOverlay(RenderGameOverlayEvent.Text event) {
+        if (!Minecraft.getMinecraft().gameSettings.showDebugInfo) return;
+
+        event.getRight().add("");
+        event.getRight().add(String.format("MCA queue: %d (max %d), %d processed", ClientMessageQueue.getDepth(), ClientMessageQueue.getMaxDepth(), ClientMessageQueue.getProcessedCount()));
+        event.getRight().add(String.format("MCA latency: %.2f ms avg, %.2f ms max", ClientMessageQueue.getAverageLatencyMillis(), ClientMessageQueue.getMaxLatencyMillis()));
+    }
+}
@@ -3,22 +3,22 @@ package mca.client.gui;
 import mca.core.MCA;
 import mca.core.forge.NetMCA;
 import mca.entity.EntityVillagerMCA;
+import mca.entity.data.SavedVillagerSummary;
 import net.minecraft.client.gui.GuiButton;
 import net.minecraft.client.gui.GuiScreen;
 import net.minecraft.client.gui.inventory.GuiInventory;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.nbt.NBTTagCompound;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
+
+import static mca.core.forge.NetMCA.SavedVillagersResponse.PAGE_SIZE;
 
 @SideOnly(Side.CLIENT)
 public class GuiStaffOfLife extends GuiScreen {
-    private Map<String, NBTTagCompound> villagerData;
+    private Map<Integer, List<SavedVillagerSummary>> pages = new HashMap<>();
+    private Set<Integer> requestedPages = new HashSet<>();
     private GuiButton reviveButton;
     private GuiButton nameButton;
     private GuiButton backButton;
@@ -29,7 +29,8 @@ public class GuiStaffOfLife extends GuiScreen {
 
     // selection fields
     private int index = 0;
-    private List<String> keys = new ArrayList<>();
+    private int total = 0;
+    private SavedVillagerSummary selected;
 
     public GuiStaffOfLife(EntityPlayer player) {
         super();
@@ -38,7 +39,7 @@ public class GuiStaffOfLife extends GuiScreen {
 
     @Override
     public void initGui() {
-        NetMCA.INSTANCE.sendToServer(new NetMCA.SavedVillagersRequest());
+        requestPage(0);
 
         buttonList.clear();
         buttonList.add(backButton = new GuiButton(1, width / 2 - 123, height / 2 + 65, 20, 20, "<<"));
@@ -46,6 +47,7 @@ public class GuiStaffOfLife extends GuiScreen {
         buttonList.add(nameButton = new GuiButton(3, width / 2 - 100, height / 2 + 65, 200, 20, ""));
         buttonList.add(reviveButton = new GuiButton(4, width / 2 - 100, height / 2 + 90, 60, 20, MCA.getLocalizer().localize("gui.button.revive")));
         buttonList.add(closeButton = new GuiButton(5, width / 2 + 40, height / 2 + 90, 60, 20, MCA.getLocalizer().localize("gui.button.exit")));
+        reviveButton.enabled = false;
     }
 
     @Override
@@ -55,8 +57,8 @@ public class GuiStaffOfLife extends GuiScreen {
 
     @Override
     protected void actionPerformed(GuiButton guibutton) {
-        if (guibutton == reviveButton) {
-            NetMCA.INSTANCE.sendToServer(new NetMCA.ReviveVillager(UUID.fromString(keys.get(index))));
+        if (guibutton == reviveButton && selected != null) {
+            NetMCA.INSTANCE.sendToServer(new NetMCA.ReviveVillager(selected.getUuid()));
             mc.displayGuiScreen(null);
         } else if (guibutton == backButton) selectData(index - 1);
         else if (guibutton == nextButton) selectData(index + 1);
@@ -71,13 +73,16 @@ public class GuiStaffOfLife extends GuiScreen {
         super.drawScreen(sizeX, sizeY, offset);
     }
 
-    public void setVillagerData(Map<String, NBTTagCompound> data) {
-        villagerData = data;
+    /**
+     * Receives one page of saved villagers from the server.
+     */
+    public void setVillagerPage(int page, int total, List<SavedVillagerSummary> summaries) {
+        this.total = total;
+        pages.put(page, summaries);
 
-        if (data.size() > 0) {
-            dummy = new EntityVillagerMCA(player.world);
-            keys.addAll(data.keySet());
-            selectData(0);
+        if (total > 0) {
+            if (dummy == null) dummy = new EntityVillagerMCA(player.world);
+            if (page == index / PAGE_SIZE) selectData(index);
         } else {
             nameButton.displayString = "No villagers found.";
             backButton.enabled = false;
@@ -87,24 +92,39 @@ public class GuiStaffOfLife extends GuiScreen {
         }
     }
 
-    private void updateDummy(NBTTagCompound nbt) {
-        dummy.readEntityFromNBT(nbt);
-        dummy.setHealth(20.0F);
-    }
-
     private void selectData(int i) {
-        if (i < 0) i = keys.size() - 1;
-        else if (i > keys.size() - 1) i = 0;
+        if (total == 0) return;
+        if (i < 0) i = total - 1;
+        else if (i > total - 1) i = 0;
 
         index = i;
-        updateDummy(villagerData.get(keys.get(index)));
+        int page = index / PAGE_SIZE;
+        List<SavedVillagerSummary> summaries = pages.get(page);
+
+        // Pages are only fetched once they are browsed to
+        if (summaries == null || index % PAGE_SIZE >= summaries.size()) {
+            selected = null;
+            reviveButton.enabled = false;
+            nameButton.displayString = "...";
+            if (summaries == null) requestPage(page);
+            return;
+        }
+
+        selected = summaries.get(index % PAGE_SIZE);
+        selected.applyTo(dummy);
+        dummy.setHealth(20.0F);
+        reviveButton.enabled = true;
         nameButton.displayString = dummy.getDisplayName().getUnformattedText();
     }
 
+    private void requestPage(int page) {
+        if (requestedPages.add(page)) NetMCA.INSTANCE.sendToServer(new NetMCA.SavedVillagersRequest(page));
+    }
+
     private void drawDummy() {
         int posX = width / 2;
         int posY = height / 2 + 45;
 
-        if (dummy != null) GuiInventory.drawEntityOnScreen(posX, posY, 60, 0, 0, dummy);
+        if (dummy != null && selected != null) GuiInventory.drawEntityOnScreen(posX, posY, 60, 0, 0, dummy);
     }
-}
\ No newline at end of file
+}
@@ -76,13 +76,6 @@ public class GuiVillagerEditor extends GuiScreen {
         } else if (btn.getIdentifier().equals("gui.button.profession.set")) {
             String profession = professionTextField.getText();
             NetMCA.INSTANCE.sendToServer(new NetMCA.SetProfession(villager.getUniqueID(), profession));
-            new java.util.Timer().schedule(new java.util.TimerTask() {
-                        @Override
-                        public void run() {
-                            NetMCA.INSTANCE.sendToServer(new NetMCA.CareerRequest(villager.getUniqueID()));
-                        }
-                    },500
-            );
         } else if (btn.getIdentifier().contains("gui.button.texture")) {
             String texture = btn.getIdentifier().endsWith(".set") ? textureTextField.getText() : API.getRandomSkin(villager);
             NetMCA.INSTANCE.sendToServer(new NetMCA.SetTexture(villager.getUniqueID(), texture));
@@ -2,11 +2,11 @@ package mca.client.gui;
 
 import lombok.NonNull;
 import mca.core.forge.NetMCA;
-import net.minecraft.nbt.NBTTagCompound;
 import org.apache.commons.lang3.StringUtils;
 
 import mca.core.MCA;
 import mca.entity.EntityVillagerMCA;
+import mca.entity.data.FamilyMemberSummary;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiButton;
 import net.minecraft.client.gui.GuiScreen;
@@ -15,12 +15,10 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 
 import java.util.List;
 
-import static mca.entity.EntityVillagerMCA.*;
-
 @SideOnly(Side.CLIENT)
 public class GuiWhistle extends GuiScreen {
     private EntityVillagerMCA dummyHuman;
-    private List<NBTTagCompound> villagerDataList;
+    private List<FamilyMemberSummary> villagerDataList;
 
     private GuiButton selectionLeftButton;
     private GuiButton selectionRightButton;
@@ -66,7 +64,7 @@ public class GuiWhistle extends GuiScreen {
         }
 
         if (villagerDataList != null && villagerDataList.size() > 0) {
-            NBTTagCompound data = villagerDataList.get(selectedIndex - 1);
+            FamilyMemberSummary data = villagerDataList.get(selectedIndex - 1);
 
             if (guibutton == selectionLeftButton) {
                 if (selectedIndex == 1) {
@@ -89,12 +87,13 @@ public class GuiWhistle extends GuiScreen {
             }
 
             else if (guibutton == callButton) {
-                NetMCA.INSTANCE.sendToServer(new NetMCA.CallToPlayer(data.getUniqueId("uuid")));
+                NetMCA.INSTANCE.sendToServer(new NetMCA.CallToPlayer(data.getUuid()));
                 Minecraft.getMinecraft().displayGuiScreen(null);
             }
 
-            villagerNameButton.displayString = data.getString("name");
-            updateDummyVillagerWithData(data);
+            data = villagerDataList.get(selectedIndex - 1);
+            villagerNameButton.displayString = data.getName();
+            data.applyTo(dummyHuman);
         }
     }
 
@@ -130,29 +129,20 @@ public class GuiWhistle extends GuiScreen {
         net.minecraft.client.gui.inventory.GuiInventory.drawEntityOnScreen(posX, posY, 75, 0, 0, dummyHuman);
     }
 
-    public void setVillagerDataList(@NonNull List<NBTTagCompound> dataList) {
+    public void setVillagerDataList(@NonNull List<FamilyMemberSummary> dataList) {
         this.villagerDataList = dataList;
         this.loadingAnimationTicks = -1;
         this.selectedIndex = 1;
 
         try {
-            NBTTagCompound firstData = dataList.get(0);
-            villagerNameButton.displayString = firstData.getString("name");
+            FamilyMemberSummary firstData = dataList.get(0);
+            villagerNameButton.displayString = firstData.getName();
             dummyHuman = new EntityVillagerMCA(Minecraft.getMinecraft().world);
-            updateDummyVillagerWithData(firstData);
+            firstData.applyTo(dummyHuman);
         }
 
         catch (IndexOutOfBoundsException e) {
             callButton.enabled = false;
         }
     }
-
-    private void updateDummyVillagerWithData(NBTTagCompound nbt) {
-        dummyHuman.set(VILLAGER_NAME, nbt.getString("name"));
-        dummyHuman.set(TEXTURE, nbt.getString("texture"));
-        dummyHuman.set(GIRTH, nbt.getFloat("girth"));
-        dummyHuman.set(TALLNESS, nbt.getFloat("tallness"));
-        dummyHuman.set(IS_INFECTED, nbt.getBoolean("infected"));
-        dummyHuman.set(AGE_STATE, nbt.getInteger("ageState"));
-    }
-}
\ No newline at end of file
+}
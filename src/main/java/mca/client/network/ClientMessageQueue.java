@@ -1,71 +1,130 @@
 package mca.client.network;
 
+import mca.client.gui.GuiStaffOfLife;
 import mca.core.MCA;
 import mca.core.forge.NetMCA;
 import mca.entity.EntityVillagerMCA;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiScreen;
 import net.minecraft.entity.Entity;
-import net.minecraft.entity.passive.EntityVillager;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.world.World;
-import net.minecraftforge.fml.common.ObfuscationReflectionHelper;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 
-import java.util.Optional;
-import java.util.UUID;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+/**
+ * Messages that must be applied on the client's main thread are queued here by their network handlers.
+ * The queue is drained at the end of every client tick until it is empty or the configured time budget is used up.
+ */
 public class ClientMessageQueue {
-    private static ConcurrentLinkedQueue<IMessage> scheduledMessages = new ConcurrentLinkedQueue<>();
+    private static final ConcurrentLinkedQueue<QueuedMessage> scheduledMessages = new ConcurrentLinkedQueue<>();
+    private static final Map<Class<? extends IMessage>, Consumer<IMessage>> handlers = new HashMap<>();
+
+    // Queue statistics. Depth is updated from the network thread, everything else only from the main thread.
+    private static final AtomicInteger depth = new AtomicInteger();
+    private static int maxDepth;
+    private static long processedCount;
+    private static long totalLatencyNanos;
+    private static long maxLatencyNanos;
+
+    static {
+        register(NetMCA.PlayerHistoryUpdate.class, ClientMessageQueue::handlePlayerHistory);
+        register(NetMCA.SpawnParticles.class, ClientMessageQueue::handleParticles);
+        register(NetMCA.SavedVillagersResponse.class, ClientMessageQueue::handleSavedVillagers);
+    }
+
+    private static <T extends IMessage> void register(Class<T> type, Consumer<T> handler) {
+        handlers.put(type, msg -> handler.accept(type.cast(msg)));
+    }
 
     public static void processScheduledMessages() {
-        IMessage next = scheduledMessages.poll();
+        long deadline = System.nanoTime() + MCA.getConfig().clientMessageBudgetMicros * 1000L;
+        maxDepth = Math.max(maxDepth, depth.get());
+
+        QueuedMessage next;
+        while ((next = scheduledMessages.poll()) != null) {
+            depth.decrementAndGet();
+            handle(next.message);
+
+            long now = System.nanoTime();
+            long latency = now - next.queuedAt;
+            processedCount++;
+            totalLatencyNanos += latency;
+            maxLatencyNanos = Math.max(maxLatencyNanos, latency);
 
-        if (next != null) handle(next);
+            if (now >= deadline) break;
+        }
     }
 
     public static void add(IMessage msg) {
-        scheduledMessages.add(msg);
+        scheduledMessages.add(new QueuedMessage(msg, System.nanoTime()));
+        depth.incrementAndGet();
+    }
+
+    public static int getDepth() {
+        return depth.get();
+    }
+
+    public static int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public static long getProcessedCount() {
+        return processedCount;
+    }
+
+    public static double getAverageLatencyMillis() {
+        return processedCount == 0 ? 0.0D : totalLatencyNanos / (double) processedCount / 1_000_000.0D;
+    }
+
+    public static double getMaxLatencyMillis() {
+        return maxLatencyNanos / 1_000_000.0D;
     }
 
     private static void handle(IMessage msg) {
-        if (msg instanceof NetMCA.CareerResponse) handleCareerId((NetMCA.CareerResponse) msg);
-        else if (msg instanceof NetMCA.InventoryResponse) handleInventory((NetMCA.InventoryResponse) msg);
+        Consumer<IMessage> handler = handlers.get(msg.getClass());
+        if (handler != null) handler.accept(msg);
         else MCA.getLog().error("Unexpected message in queue:" + msg.getClass().getName());
     }
 
-    private static void handleCareerId(NetMCA.CareerResponse msg) {
+    private static void handlePlayerHistory(NetMCA.PlayerHistoryUpdate msg) {
         EntityPlayer player = Minecraft.getMinecraft().player;
-
-        try {
-            Optional<EntityVillagerMCA> villager = getVillagerByUUID(player.getEntityWorld(), msg.getEntityUUID());
-
-            if (villager.isPresent()) {
-                ObfuscationReflectionHelper.setPrivateValue(EntityVillager.class, villager.get(), msg.getCareerId(), EntityVillagerMCA.VANILLA_CAREER_ID_FIELD_INDEX);
+        if (player != null) {
+            Entity entity = player.world.getEntityByID(msg.getEntityId());
+            if (entity instanceof EntityVillagerMCA) {
+                ((EntityVillagerMCA) entity).applySyncedPlayerHistory(msg.getPlayerUUID(), msg.getHistoryNBT());
             }
-        } catch (ClassCastException e) {
-            MCA.getLog().error("Failed to cast entity to villager on career ID update.");
-        } catch (Exception e) {
-            MCA.getLog().error("Failed to set career ID on villager!", e);
         }
     }
 
-    private static void handleInventory(NetMCA.InventoryResponse msg) {
+    private static void handleParticles(NetMCA.SpawnParticles msg) {
         EntityPlayer player = Minecraft.getMinecraft().player;
         if (player != null) {
-            Optional<EntityVillagerMCA> villager = getVillagerByUUID(player.world, msg.getEntityUUID());
-            villager.ifPresent(entityVillagerMCA -> entityVillagerMCA.inventory.readInventoryFromNBT(msg.getInventoryNBT().getTagList("inventory", 10)));
+            Entity entity = player.world.getEntityByID(msg.getEntityId());
+            if (entity instanceof EntityVillagerMCA) {
+                msg.getBursts().forEach((type, count) -> {
+                    for (int i = 0; i < count; i++) ((EntityVillagerMCA) entity).spawnParticles(type);
+                });
+            }
         }
     }
 
-    private static Optional<EntityVillagerMCA> getVillagerByUUID(World world, UUID uuid) {
-        try {
-            synchronized (world.loadedEntityList) {
-                return world.loadedEntityList.stream().filter(e -> e.getUniqueID().equals(uuid)).map(EntityVillagerMCA.class::cast).findFirst();
-            }
-        } catch (ClassCastException ignored) {
-            MCA.getLog().error("Failed to cast entity with UUID " + uuid.toString() + " to a villager!");
+    private static void handleSavedVillagers(NetMCA.SavedVillagersResponse msg) {
+        GuiScreen screen = Minecraft.getMinecraft().currentScreen;
+        if (screen instanceof GuiStaffOfLife) ((GuiStaffOfLife) screen).setVillagerPage(msg.getPage(), msg.getTotal(), msg.getSummaries());
+    }
+
+    private static class QueuedMessage {
+        final IMessage message;
+        final long queuedAt;
+
+        QueuedMessage(IMessage message, long queuedAt) {
+            this.message = message;
+            this.queuedAt = queuedAt;
         }
-        return Optional.empty();
     }
 }
@@ -4,9 +4,12 @@ import com.google.common.base.Optional;
 import mca.core.Constants;
 import mca.core.MCA;
 import mca.core.minecraft.ItemsMCA;
+import mca.core.minecraft.TickScheduler;
+import mca.core.minecraft.VillagerHydrator;
 import mca.entity.EntityGrimReaper;
 import mca.entity.EntityVillagerMCA;
 import mca.entity.data.PlayerSaveData;
+import mca.entity.data.RelationshipGraph;
 import mca.items.ItemBaby;
 import mca.util.Util;
 import net.minecraft.command.CommandBase;
@@ -64,6 +67,7 @@ public class CommandAdminMCA extends CommandBase {
                 case "rvd": resetVillagerData(player, arguments); break;
                 case "rpd": resetPlayerData(player, arguments); break;
                 case "cve": clearVillagerEditors(player); break;
+                case "prf": showPerformanceMetrics(player); break;
                 default: throw new WrongUsageException("");
             }
         } catch (ClassCastException e) {
@@ -162,11 +166,17 @@ public class CommandAdminMCA extends CommandBase {
             sendMessage(sender, "Player not found on the server.");
         } else {
             PlayerSaveData.get((EntityPlayer)target.get()).reset();
+            RelationshipGraph.get(sender.world).setSpouse(target.get().getUniqueID(), null);
             sendMessage(sender, "Player data for " + target.get().getName() + " has been reset successfully.");
             sendMessage(target.get(), "Your player data has been reset by " + sender.getName() + ".");
         }
     }
 
+    private void showPerformanceMetrics(EntityPlayer sender) {
+        VillagerHydrator.describeMetrics().forEach(line -> sendMessage(sender, line));
+        TickScheduler.describeMetrics().forEach(line -> sendMessage(sender, line));
+    }
+
     private void clearVillagerEditors(EntityPlayer sender) {
         ItemStack editorStack = new ItemStack(ItemsMCA.VILLAGER_EDITOR);
         sender.world.playerEntities.stream().filter(p -> p.inventory.hasItemStack(editorStack)).forEach(p -> {
@@ -211,6 +221,7 @@ public class CommandAdminMCA extends CommandBase {
         sendMessage(commandSender, Constants.Color.WHITE + " /mca-admin rvd <UUID>" + Constants.Color.GOLD + " - Resets the given villager.", true);
         sendMessage(commandSender, Constants.Color.WHITE + " /mca-admin rpd <PlayerName>" + Constants.Color.GOLD + " - Resets the given player's MCA data.", true);
         sendMessage(commandSender, Constants.Color.WHITE + " /mca-admin cve" + Constants.Color.GOLD + " - Remove all villager editors from the game.", true);
+        sendMessage(commandSender, Constants.Color.WHITE + " /mca-admin prf" + Constants.Color.GOLD + " - Shows villager loading and tick timings.", true);
 
         sendMessage(commandSender, Constants.Color.DARKRED + "--- " + Constants.Color.GOLD + "GLOBAL COMMANDS" + Constants.Color.DARKRED + " ---", true);
         sendMessage(commandSender, Constants.Color.WHITE + " /mca-admin help " + Constants.Color.GOLD + " - Shows this list of commands.", true);
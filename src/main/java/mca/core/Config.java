@@ -35,6 +35,13 @@ public final class Config implements Serializable {
     public boolean allowCrashReporting;
     public boolean allowUpdateChecking;
     public boolean allowRoseGoldGeneration;
+    public int clientMessageBudgetMicros;
+    public int villagerTickBudgetMicros;
+    public int aiFullDetailRange;
+    public int aiReducedDetailRange;
+    public int savedVillagerLimit;
+    public int savedVillagerLimitPerOwner;
+    public int savedVillagerLifetimeDays;
 
     public Config(FMLPreInitializationEvent event) {
         config = new Configuration(event.getSuggestedConfigurationFile());
@@ -65,6 +72,13 @@ public final class Config implements Serializable {
         allowUpdateChecking = config.get("General", "Allow Update Checking?", true, "If enabled, notifies you when an update to MCA is available.").getBoolean();
         allowRoseGoldGeneration = config.get("General", "Allow Rose Gold World Generation", true, "If enabled, generates rose gold in your world. If disabled, generates stone instead.").getBoolean();
         villagerMaxHealth = config.get("General", "Villager Max Health", 20, "Each villager's maximum health. 1 point equals 1 heart.").getInt();
+        clientMessageBudgetMicros = config.get("General", "Client Message Budget (Microseconds)", 2000, "Time per client tick spent applying queued MCA network messages. At least one message is always applied.").getInt();
+        villagerTickBudgetMicros = config.get("General", "Villager Tick Budget (Microseconds)", 1000, "Time per server tick spent on periodic villager work such as healing and aging babies. Work past the budget is deferred to a later tick.").getInt();
+        aiFullDetailRange = config.get("General", "AI Full Detail Range", 48, "Villagers within this many blocks of a player run their full AI.").getInt();
+        aiReducedDetailRange = config.get("General", "AI Reduced Detail Range", 96, "Villagers within this many blocks of a player consider sleeping, work and chores less often. Villagers further away skip pathing and simulate their chores.").getInt();
+        savedVillagerLimit = config.get("General", "Saved Villager Limit", 1000, "Maximum number of dead villagers kept for revival. The oldest are forgotten first. 0 for no limit.").getInt();
+        savedVillagerLimitPerOwner = config.get("General", "Saved Villager Limit Per Owner", 50, "Maximum number of dead villagers kept for revival per spouse or parent. The oldest are forgotten first. 0 for no limit.").getInt();
+        savedVillagerLifetimeDays = config.get("General", "Saved Villager Lifetime (Days)", 0, "Real-time days a dead villager is kept for revival. 0 to keep them forever.").getInt();
         config.save();
     }
 
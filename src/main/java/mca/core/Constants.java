@@ -14,6 +14,7 @@ public class Constants {
     private static final String SECTION_SIGN = "\u00a7";
 
     public static final int GUI_SCREEN_BUTTON_LIST_FIELD_INDEX = 7;
+    public static final int VILLAGER_PROFESSION_CAREERS_FIELD_INDEX = 3;
 
     /**
      * All possible font colors
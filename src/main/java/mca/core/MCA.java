@@ -11,8 +11,11 @@ import mca.core.forge.ServerProxy;
 import mca.core.minecraft.ItemsMCA;
 import mca.core.minecraft.ProfessionsMCA;
 import mca.core.minecraft.RoseGoldOreGenerator;
+import mca.core.minecraft.VillagerHydrator;
 import mca.entity.EntityGrimReaper;
 import mca.entity.EntityVillagerMCA;
+import mca.entity.data.PlayerSaveDataStore;
+import mca.entity.data.SavedVillagers;
 import mca.enums.EnumGender;
 import mca.util.Util;
 import net.minecraft.creativetab.CreativeTabs;
@@ -90,6 +93,7 @@ public class MCA {
             }
         };
         MinecraftForge.EVENT_BUS.register(new EventHooks());
+        proxy.registerEventHandlers();
         NetworkRegistry.INSTANCE.registerGuiHandler(this, new GuiHandler());
         NetMCA.registerMessages();
 
@@ -111,6 +115,7 @@ public class MCA {
         EntityRegistry.registerModEntity(new ResourceLocation(MODID, "EntityVillagerMCA"), EntityVillagerMCA.class, EntityVillagerMCA.class.getSimpleName(), 1120, this, 50, 2, true);
         EntityRegistry.registerModEntity(new ResourceLocation(MODID, "GrimReaperMCA"), EntityGrimReaper.class, EntityGrimReaper.class.getSimpleName(), 1121, this, 50, 2, true);
         ProfessionsMCA.registerCareers();
+        VillagerHydrator.register();
 
         proxy.registerModelMeshers();
         ItemsMCA.assignCreativeTabs();
@@ -125,6 +130,9 @@ public class MCA {
     public void serverStarting(FMLServerStartingEvent event) {
         event.registerServerCommand(new CommandMCA());
         event.registerServerCommand(new CommandAdminMCA());
+
+        // Starts indexing the saved villagers in the background, well before the first one dies or is revived.
+        SavedVillagers.get(event.getServer().getEntityWorld());
     }
 
     @EventHandler
@@ -132,6 +140,12 @@ public class MCA {
         checkForCrashReports();
     }
 
+    @EventHandler
+    public void serverStopped(FMLServerStoppedEvent event) {
+        PlayerSaveDataStore.close();
+        SavedVillagers.close();
+    }
+
     public String getRandomSupporter() {
         if (supporters.length > 0) {
             return supporters[new Random().nextInt(supporters.length)];
@@ -5,6 +5,8 @@ import mca.core.minecraft.VillageHelper;
 import mca.entity.EntityGrimReaper;
 import mca.entity.EntityVillagerMCA;
 import mca.entity.data.PlayerSaveData;
+import mca.entity.data.RelationshipGraph;
+import mca.util.Util;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.effect.EntityLightningBolt;
 import net.minecraft.entity.player.EntityPlayer;
@@ -197,6 +199,7 @@ public class MCAServer {
             PlayerSaveData receiverData = PlayerSaveData.get(receiver);
             senderData.marry(receiver.getUniqueID(), receiver.getName());
             receiverData.marry(sender.getUniqueID(), sender.getName());
+            RelationshipGraph.get(sender.world).setSpouse(sender.getUniqueID(), receiver.getUniqueID());
 
             // Send success messages.
             successMessage(sender, "You and " + receiver.getName() + " are now married.");
@@ -223,7 +226,7 @@ public class MCAServer {
         }
 
         // Lookup the spouse, if it's a villager, we can't continue
-        Optional<Entity> spouse = sender.world.loadedEntityList.stream().filter(e -> e.getUniqueID().equals(senderData.getSpouseUUID())).findFirst();
+        Optional<Entity> spouse = Util.getEntityByUUID(sender.world, senderData.getSpouseUUID()).toJavaUtil();
         if (spouse.isPresent() && spouse.get() instanceof EntityVillagerMCA) {
             failMessage(sender, "You cannot use this command when married to a villager.");
             return;
@@ -235,6 +238,7 @@ public class MCAServer {
         successMessage(sender, "Your marriage to " + senderData.getSpouseName() + " has ended.");
         senderData.endMarriage();
         receiverData.endMarriage();
+        RelationshipGraph.get(sender.world).setSpouse(sender.getUniqueID(), null);
 
         // Notify the ex if they are online.
         spouse.ifPresent(e -> failMessage((EntityPlayer) e, sender.getName() + " has ended their marriage with you."));
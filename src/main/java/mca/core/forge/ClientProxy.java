@@ -1,11 +1,13 @@
 package mca.core.forge;
 
+import mca.client.ClientEventHooks;
 import mca.client.render.RenderReaperFactory;
 import mca.client.render.RenderVillagerFactory;
 import mca.core.minecraft.BlocksMCA;
 import mca.core.minecraft.ItemsMCA;
 import mca.entity.EntityGrimReaper;
 import mca.entity.EntityVillagerMCA;
+import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.fml.client.registry.RenderingRegistry;
 
 public class ClientProxy extends ServerProxy {
@@ -15,6 +17,11 @@ public class ClientProxy extends ServerProxy {
         RenderingRegistry.registerEntityRenderingHandler(EntityGrimReaper.class, RenderReaperFactory.INSTANCE);
     }
 
+    @Override
+    public void registerEventHandlers() {
+        MinecraftForge.EVENT_BUS.register(new ClientEventHooks());
+    }
+
     @Override
     public void registerModelMeshers() {
         ItemsMCA.registerModelMeshers();
@@ -5,10 +5,17 @@ import mca.core.Constants;
 import mca.core.MCA;
 import mca.core.MCAServer;
 import mca.core.minecraft.BlocksMCA;
+import mca.core.minecraft.FarmPlots;
+import mca.core.minecraft.FamilyIndex;
 import mca.core.minecraft.ItemsMCA;
+import mca.core.minecraft.PointOfInterestIndex;
 import mca.core.minecraft.ProfessionsMCA;
+import mca.core.minecraft.TickScheduler;
+import mca.core.minecraft.TreeCache;
+import mca.core.minecraft.VillagerIndex;
 import mca.core.minecraft.WorldEventListenerMCA;
 import mca.entity.EntityVillagerMCA;
+import mca.entity.data.PlayerSaveDataStore;
 import mca.items.ItemBaby;
 import net.minecraft.block.Block;
 import net.minecraft.entity.Entity;
@@ -16,6 +23,7 @@ import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.monster.EntityMob;
 import net.minecraft.entity.passive.EntityVillager;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.init.Blocks;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
@@ -34,6 +42,7 @@ import net.minecraftforge.event.entity.living.LivingDeathEvent;
 import net.minecraftforge.event.entity.living.LivingSetAttackTargetEvent;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
 import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ChunkEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.eventhandler.Event;
@@ -67,16 +76,46 @@ public class EventHooks {
 
     @SubscribeEvent
     public void onWorldLoad(WorldEvent.Load event) {
-        if (event.getWorld().isRemote) event.getWorld().addEventListener(new WorldEventListenerMCA());
+        event.getWorld().addEventListener(new WorldEventListenerMCA());
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        VillagerIndex.unload(event.getWorld());
+        if (!event.getWorld().isRemote) {
+            PointOfInterestIndex.remove(event.getWorld());
+            TreeCache.remove(event.getWorld());
+            FarmPlots.remove(event.getWorld());
+            FamilyIndex.unload(event.getWorld());
+        }
+
+        // Only send crash reports on unloading the overworld. This will never change based on other mods installed
+        // and ensures only one crash report is sent per instance.
+        if (!event.getWorld().isRemote && event.getWorld().provider.getDimension() == 0) MCA.getInstance().checkForCrashReports();
+    }
+
+    @SubscribeEvent
+    public void onWorldSave(WorldEvent.Save event) {
+        if (!event.getWorld().isRemote && event.getWorld().provider.getDimension() == 0) PlayerSaveDataStore.save();
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        if (!event.getWorld().isRemote) {
+            PointOfInterestIndex.get(event.getWorld()).onChunkUnload(event.getChunk());
+            TreeCache.get(event.getWorld()).onChunkUnload(event.getChunk());
+            FarmPlots.get(event.getWorld()).onChunkUnload(event.getChunk());
+        }
     }
 
     @SubscribeEvent
     public void onClientTick(TickEvent.ClientTickEvent event) {
-        ClientMessageQueue.processScheduledMessages();
+        if (event.phase == TickEvent.Phase.END) ClientMessageQueue.processScheduledMessages();
     }
 
     @SubscribeEvent
     public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.START) TickScheduler.startTick();
         MCAServer.get().tick();
     }
 
@@ -96,13 +135,6 @@ public class EventHooks {
         MCA.updateAvailable = false;
     }
 
-    @SubscribeEvent
-    public void onWorldUnload(WorldEvent.Unload event) {
-        // Only send crash reports on unloading the overworld. This will never change based on other mods installed
-        // and ensures only one crash report is sent per instance.
-        if (!event.getWorld().isRemote && event.getWorld().provider.getDimension() == 0) MCA.getInstance().checkForCrashReports();
-    }
-
     @SubscribeEvent
     public void onEntityJoinWorld(EntityJoinWorldEvent event) {
         World world = event.getWorld();
@@ -123,6 +155,14 @@ public class EventHooks {
         }
     }
 
+    @SubscribeEvent
+    public void onStartTracking(net.minecraftforge.event.entity.player.PlayerEvent.StartTracking event) {
+        // Each player only receives their own history with a villager, starting when the villager comes into view.
+        if (event.getTarget() instanceof EntityVillagerMCA && event.getEntityPlayer() instanceof EntityPlayerMP) {
+            ((EntityVillagerMCA) event.getTarget()).syncPlayerHistoryTo((EntityPlayerMP) event.getEntityPlayer());
+        }
+    }
+
     @SubscribeEvent
     public void onEntityInteractSpecific(PlayerInteractEvent.EntityInteractSpecific event) {
         if (event.getTarget() instanceof EntityVillagerMCA && event.getEntityPlayer() != null) {
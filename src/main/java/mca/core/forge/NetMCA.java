@@ -4,21 +4,27 @@ import io.netty.buffer.ByteBuf;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import mca.api.API;
 import mca.client.gui.GuiStaffOfLife;
 import mca.client.gui.GuiWhistle;
 import mca.client.network.ClientMessageQueue;
+import mca.core.Constants;
 import mca.core.MCA;
+import mca.core.minecraft.FamilyIndex;
 import mca.core.minecraft.ProfessionsMCA;
 import mca.entity.EntityVillagerMCA;
+import mca.entity.data.FamilyMemberSummary;
+import mca.entity.data.PlayerHistory;
+import mca.entity.data.SavedVillagerSummary;
 import mca.entity.data.SavedVillagers;
-import mca.entity.inventory.InventoryMCA;
 import mca.items.ItemBaby;
 import mca.server.ServerMessageHandler;
+import mca.util.FieldAccessor;
+import mca.util.Util;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiScreen;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLiving;
-import net.minecraft.entity.passive.EntityVillager;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.item.ItemStack;
@@ -27,7 +33,6 @@ import net.minecraft.util.EnumParticleTypes;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.text.TextComponentString;
 import net.minecraft.world.World;
-import net.minecraftforge.fml.common.ObfuscationReflectionHelper;
 import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
@@ -41,6 +46,7 @@ import scala.collection.parallel.ParIterableLike;
 
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.stream.Collectors;
 
 public class NetMCA {
     public static final SimpleNetworkWrapper INSTANCE = NetworkRegistry.INSTANCE.newSimpleChannel("mca");
@@ -49,10 +55,6 @@ public class NetMCA {
         INSTANCE.registerMessage(ButtonActionHandler.class, ButtonAction.class, 0, Side.SERVER);
         INSTANCE.registerMessage(SayHandler.class, Say.class, 1, Side.CLIENT);
         INSTANCE.registerMessage(BabyNameHandler.class, BabyName.class, 2, Side.SERVER);
-        INSTANCE.registerMessage(CareerResponseHandler.class, CareerResponse.class, 3, Side.CLIENT);
-        INSTANCE.registerMessage(CareerRequestHandler.class, CareerRequest.class, 4, Side.SERVER);
-        INSTANCE.registerMessage(InventoryRequestHandler.class, InventoryRequest.class, 5, Side.SERVER);
-        INSTANCE.registerMessage(InventoryResponseHandler.class, InventoryResponse.class, 6, Side.CLIENT);
         INSTANCE.registerMessage(SavedVillagersRequestHandler.class, SavedVillagersRequest.class, 7, Side.SERVER);
         INSTANCE.registerMessage(SavedVillagersResponseHandler.class, SavedVillagersResponse.class, 8, Side.CLIENT);
         INSTANCE.registerMessage(ReviveVillagerHandler.class, ReviveVillager.class, 9, Side.SERVER);
@@ -63,6 +65,7 @@ public class NetMCA {
         INSTANCE.registerMessage(CallToPlayerHandler.class, CallToPlayer.class, 14, Side.SERVER);
         INSTANCE.registerMessage(SetTextureHandler.class, SetTexture.class, 15, Side.SERVER);
         INSTANCE.registerMessage(SetProfessionHandler.class, SetProfession.class, 16, Side.SERVER);
+        INSTANCE.registerMessage(PlayerHistoryUpdateHandler.class, PlayerHistoryUpdate.class, 17, Side.CLIENT);
     }
 
     @SideOnly(Side.CLIENT)
@@ -70,6 +73,16 @@ public class NetMCA {
         return Minecraft.getMinecraft().player;
     }
 
+    // UUIDs are sent as their two longs, 16 bytes rather than 37 for the length-prefixed string form.
+    private static void writeUUID(ByteBuf buf, UUID uuid) {
+        buf.writeLong(uuid.getMostSignificantBits());
+        buf.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUUID(ByteBuf buf) {
+        return new UUID(buf.readLong(), buf.readLong());
+    }
+
     @AllArgsConstructor
     @NoArgsConstructor
     @Getter
@@ -81,34 +94,59 @@ public class NetMCA {
         @Override
         public void toBytes(ByteBuf buf) {
             buf.writeBoolean(targetUUID != null);
-            ByteBufUtils.writeUTF8String(buf, this.guiKey);
-            ByteBufUtils.writeUTF8String(buf, this.buttonId);
+
+            // Buttons defined in the API are sent by their network ID, shifted by one so that 0 marks a button sent by name.
+            int networkId = API.getButtonNetworkId(guiKey, buttonId);
+            ByteBufUtils.writeVarInt(buf, networkId + 1, 5);
+            if (networkId == -1) {
+                ByteBufUtils.writeUTF8String(buf, this.guiKey);
+                ByteBufUtils.writeUTF8String(buf, this.buttonId);
+            }
 
             if (targetUUID != null) {
-                ByteBufUtils.writeUTF8String(buf, this.targetUUID.toString());
+                writeUUID(buf, this.targetUUID);
             }
         }
 
         @Override
         public void fromBytes(ByteBuf buf) {
             boolean hasTarget = buf.readBoolean();
-            this.guiKey = ByteBufUtils.readUTF8String(buf);
-            this.buttonId = ByteBufUtils.readUTF8String(buf);
+
+            int networkId = ByteBufUtils.readVarInt(buf, 5) - 1;
+            if (networkId == -1) {
+                this.guiKey = ByteBufUtils.readUTF8String(buf);
+                this.buttonId = ByteBufUtils.readUTF8String(buf);
+            } else {
+                // An unknown ID leaves the keys null, and the message is dropped by its handler.
+                String[] button = API.getButtonByNetworkId(networkId);
+                if (button != null) {
+                    this.guiKey = button[0];
+                    this.buttonId = button[1];
+                }
+            }
 
             if (hasTarget) {
-                this.targetUUID = UUID.fromString(ByteBufUtils.readUTF8String(buf));
+                this.targetUUID = readUUID(buf);
             }
         }
 
         public boolean targetsServer() {
             return getTargetUUID() == null;
         }
+
+        public boolean isValid() {
+            return guiKey != null && buttonId != null;
+        }
     }
 
     public static class ButtonActionHandler implements IMessageHandler<ButtonAction, IMessage> {
         @Override
         public IMessage onMessage(ButtonAction message, MessageContext ctx) {
             EntityPlayerMP player = ctx.getServerHandler().player;
+            if (!message.isValid()) {
+                MCA.getLog().warn("Dropped button action with an unknown button from " + player.getName());
+                return null;
+            }
 
             // The message can target a particular villager, or the server itself.
             if (!message.targetsServer()) {
@@ -182,181 +220,64 @@ public class NetMCA {
 
     @AllArgsConstructor
     @NoArgsConstructor
-    @Getter
-    public static class CareerResponse implements IMessage {
-        private int careerId;
-        private UUID entityUUID;
-
-        @Override
-        public void toBytes(ByteBuf buf) {
-            ByteBufUtils.writeVarInt(buf, careerId, 4);
-            ByteBufUtils.writeUTF8String(buf, entityUUID.toString());
-        }
-
-        @Override
-        public void fromBytes(ByteBuf buf) {
-            this.careerId = ByteBufUtils.readVarInt(buf, 4);
-            this.entityUUID = UUID.fromString(ByteBufUtils.readUTF8String(buf));
-        }
-    }
-
-    public static class CareerResponseHandler implements IMessageHandler<CareerResponse, IMessage> {
-
-        @Override
-        public IMessage onMessage(CareerResponse message, MessageContext ctx) {
-            // must be thrown in the queue and processed on the main thread since we must loop through the loaded entity list
-            // it could change while looping and cause a ConcurrentModificationException.
-            ClientMessageQueue.add(message);
-            return null;
-        }
-    }
-
-    @AllArgsConstructor
-    @NoArgsConstructor
-    public static class CareerRequest implements IMessage {
-        private UUID entityUUID;
-
-        @Override
-        public void toBytes(ByteBuf buf) {
-            ByteBufUtils.writeUTF8String(buf, entityUUID.toString());
-        }
+    public static class SavedVillagersRequest implements IMessage {
+        private int page;
 
         @Override
         public void fromBytes(ByteBuf buf) {
-            this.entityUUID = UUID.fromString(ByteBufUtils.readUTF8String(buf));
+            page = ByteBufUtils.readVarInt(buf, 5);
         }
-    }
-
-    public static class CareerRequestHandler implements IMessageHandler<CareerRequest, IMessage> {
-
-        @Override
-        public IMessage onMessage(CareerRequest message, MessageContext ctx) {
-            EntityPlayerMP player = ctx.getServerHandler().player;
-            int careerId = -255;
-
-            try {
-                EntityVillagerMCA villager = (EntityVillagerMCA) player.getServerWorld().getEntityFromUuid(message.entityUUID);
-
-                if (villager != null) careerId = ObfuscationReflectionHelper.getPrivateValue(EntityVillager.class, villager, EntityVillagerMCA.VANILLA_CAREER_ID_FIELD_INDEX);
-            } catch (ClassCastException ignored) {
-                MCA.getLog().error("UUID provided in career request does not match an MCA villager!: " + message.entityUUID.toString());
-                return null;
-            } catch (NullPointerException ignored) {
-                MCA.getLog().error("UUID provided in career request does not match a loaded MCA villager!: " + message.entityUUID.toString());
-                return null;
-            }
-
-            if (careerId == -255) {
-                MCA.getLog().error("Career ID wasn't assigned for UUID: " + message.entityUUID);
-                return null;
-            }
-
-            return new CareerResponse(careerId, message.entityUUID);
-        }
-    }
-
-    @AllArgsConstructor
-    @NoArgsConstructor
-    public static class InventoryRequest implements IMessage {
-        private UUID entityUUID;
 
         @Override
         public void toBytes(ByteBuf buf) {
-            ByteBufUtils.writeUTF8String(buf, entityUUID.toString());
-        }
-
-        @Override
-        public void fromBytes(ByteBuf buf) {
-            this.entityUUID = UUID.fromString(ByteBufUtils.readUTF8String(buf));
+            ByteBufUtils.writeVarInt(buf, page, 5);
         }
     }
 
-    public static class InventoryRequestHandler implements IMessageHandler<InventoryRequest, IMessage> {
+    public static class SavedVillagersRequestHandler implements IMessageHandler<SavedVillagersRequest, IMessage> {
 
         @Override
-        public IMessage onMessage(InventoryRequest message, MessageContext ctx) {
+        public IMessage onMessage(SavedVillagersRequest message, MessageContext ctx) {
             EntityPlayerMP player = ctx.getServerHandler().player;
-            EntityVillagerMCA villager = (EntityVillagerMCA) player.getServerWorld().getEntityFromUuid(message.entityUUID);
-            if (villager != null && villager.inventory != null) return new InventoryResponse(villager.getUniqueID(), villager.inventory);
+            player.getServerWorld().addScheduledTask(() -> {
+                SavedVillagers villagers = SavedVillagers.get(player.world);
+                int page = Math.max(0, message.page);
+                List<SavedVillagerSummary> summaries = villagers.getSummaries(page * SavedVillagersResponse.PAGE_SIZE, SavedVillagersResponse.PAGE_SIZE);
+                INSTANCE.sendTo(new SavedVillagersResponse(page, villagers.size(), summaries), player);
+            });
             return null;
         }
     }
 
+    /**
+     * One page of summaries of the villagers that can be revived, along with the total number of them.
+     */
+    @AllArgsConstructor
     @NoArgsConstructor
     @Getter
-    public static class InventoryResponse implements IMessage {
-        private UUID entityUUID;
-        private NBTTagCompound inventoryNBT;
-
-        public InventoryResponse(UUID entityUUID, InventoryMCA inventory) {
-            this.inventoryNBT = new NBTTagCompound();
-            this.entityUUID = entityUUID;
-            this.inventoryNBT.setTag("inventory", inventory.writeInventoryToNBT());
-        }
-
-        @Override
-        public void toBytes(ByteBuf buf) {
-            ByteBufUtils.writeUTF8String(buf, entityUUID.toString());
-            ByteBufUtils.writeTag(buf, inventoryNBT);
-        }
-
-        @Override
-        public void fromBytes(ByteBuf buf) {
-            this.entityUUID = UUID.fromString(ByteBufUtils.readUTF8String(buf));
-            this.inventoryNBT = ByteBufUtils.readTag(buf);
-        }
-    }
-
-    public static class InventoryResponseHandler implements IMessageHandler<InventoryResponse, IMessage> {
-
-        @Override
-        public IMessage onMessage(InventoryResponse message, MessageContext ctx) {
-            ClientMessageQueue.add(message);
-            return null;
-        }
-    }
-
-    public static class SavedVillagersRequest implements IMessage {
-
-        @Override
-        public void fromBytes(ByteBuf buf) {}
-
-        @Override
-        public void toBytes(ByteBuf buf) {}
-    }
-
-    public static class SavedVillagersRequestHandler implements IMessageHandler<SavedVillagersRequest, IMessage> {
-
-        @Override
-        public IMessage onMessage(SavedVillagersRequest message, MessageContext ctx) {
-            return new SavedVillagersResponse(ctx.getServerHandler().player);
-        }
-    }
-
-    @NoArgsConstructor
     public static class SavedVillagersResponse implements IMessage {
-        private Map<String, NBTTagCompound> villagers = new HashMap<>();
+        public static final int PAGE_SIZE = 16;
 
-        public SavedVillagersResponse(EntityPlayer player) {
-            villagers = SavedVillagers.get(player.world).getMap();
-        }
+        private int page;
+        private int total;
+        private List<SavedVillagerSummary> summaries;
 
         @Override
         public void toBytes(ByteBuf buf) {
-            buf.writeInt(villagers.size());
-            villagers.forEach((k,v) -> {
-                ByteBufUtils.writeUTF8String(buf, k);
-                ByteBufUtils.writeTag(buf, v);
-            });
+            ByteBufUtils.writeVarInt(buf, page, 5);
+            ByteBufUtils.writeVarInt(buf, total, 5);
+            ByteBufUtils.writeVarInt(buf, summaries.size(), 5);
+            summaries.forEach(s -> ByteBufUtils.writeTag(buf, s.toNBT()));
         }
 
         @Override
         public void fromBytes(ByteBuf buf) {
-            int size = buf.readInt();
+            page = ByteBufUtils.readVarInt(buf, 5);
+            total = ByteBufUtils.readVarInt(buf, 5);
+            summaries = new ArrayList<>();
+            int size = ByteBufUtils.readVarInt(buf, 5);
             for (int i = 0; i < size; i++) {
-                String k = ByteBufUtils.readUTF8String(buf);
-                NBTTagCompound v = ByteBufUtils.readTag(buf);
-                villagers.put(k, v);
+                summaries.add(SavedVillagerSummary.fromNBT(ByteBufUtils.readTag(buf)));
             }
         }
     }
@@ -365,8 +286,7 @@ public class NetMCA {
 
         @Override
         public IMessage onMessage(SavedVillagersResponse message, MessageContext ctx) {
-            GuiScreen screen = Minecraft.getMinecraft().currentScreen;
-            if (screen instanceof GuiStaffOfLife) ((GuiStaffOfLife) screen).setVillagerData(message.villagers);
+            ClientMessageQueue.add(message);
             return null;
         }
     }
@@ -378,12 +298,12 @@ public class NetMCA {
 
         @Override
         public void toBytes(ByteBuf buf) {
-            ByteBufUtils.writeUTF8String(buf, target.toString());
+            writeUUID(buf, target);
         }
 
         @Override
         public void fromBytes(ByteBuf buf) {
-            target = UUID.fromString(ByteBufUtils.readUTF8String(buf));
+            target = readUUID(buf);
         }
     }
 
@@ -391,23 +311,29 @@ public class NetMCA {
 
         @Override
         public IMessage onMessage(ReviveVillager message, MessageContext ctx) {
-            EntityPlayer player = ctx.getServerHandler().player;
-            SavedVillagers villagers = SavedVillagers.get(player.world);
-            NBTTagCompound nbt = SavedVillagers.get(player.world).loadByUUID(message.target);
-            if (nbt != null) {
-                EntityVillagerMCA villager = new EntityVillagerMCA(player.world);
-                villager.setPosition(player.posX, player.posY, player.posZ);
-                player.world.spawnEntity(villager);
-
-                villager.readEntityFromNBT(nbt);
-                villager.reset();
-
-                villagers.remove(message.target);
-                player.inventory.mainInventory.get(player.inventory.currentItem).damageItem(1, player);
-            }
-
+            EntityPlayerMP player = ctx.getServerHandler().player;
+            player.getServerWorld().addScheduledTask(() -> {
+                SavedVillagers villagers = SavedVillagers.get(player.world);
+                villagers.loadByUUID(message.target, nbt -> {
+                    if (nbt != null) player.getServerWorld().addScheduledTask(() -> revive(player, villagers, message.target, nbt));
+                });
+            });
             return null;
         }
+
+        private static void revive(EntityPlayerMP player, SavedVillagers villagers, UUID uuid, NBTTagCompound nbt) {
+            // Two requests for the same villager can both be loading at once; only the first one revives it.
+            if (!villagers.remove(uuid)) return;
+
+            EntityVillagerMCA villager = new EntityVillagerMCA(player.world);
+            villager.setPosition(player.posX, player.posY, player.posZ);
+            player.world.spawnEntity(villager);
+
+            villager.readEntityFromNBT(nbt);
+            villager.reset();
+
+            player.inventory.mainInventory.get(player.inventory.currentItem).damageItem(1, player);
+        }
     }
 
     @AllArgsConstructor
@@ -418,13 +344,13 @@ public class NetMCA {
 
         @Override
         public void toBytes(ByteBuf buf) {
-            ByteBufUtils.writeUTF8String(buf, entityUUID.toString());
+            writeUUID(buf, entityUUID);
             ByteBufUtils.writeUTF8String(buf, name);
         }
 
         @Override
         public void fromBytes(ByteBuf buf) {
-            entityUUID = UUID.fromString(ByteBufUtils.readUTF8String(buf));
+            entityUUID = readUUID(buf);
             name = ByteBufUtils.readUTF8String(buf);
         }
     }
@@ -434,7 +360,7 @@ public class NetMCA {
         @Override
         public IMessage onMessage(SetName message, MessageContext ctx) {
             World world = ctx.getServerHandler().player.world;
-            java.util.Optional<Entity> entity = world.loadedEntityList.stream().filter((e) -> e.getUniqueID().equals(message.entityUUID)).findFirst();
+            java.util.Optional<Entity> entity = Util.getEntityByUUID(world, message.entityUUID).toJavaUtil();
             if (!entity.isPresent()) return null;
             if (entity.get() instanceof EntityVillagerMCA) {
                 EntityVillagerMCA villager = (EntityVillagerMCA) entity.get();
@@ -444,35 +370,44 @@ public class NetMCA {
         }
     }
 
+    /**
+     * All particle bursts requested for one villager during a server tick, keyed by the villager's network entity ID.
+     */
     @AllArgsConstructor
     @NoArgsConstructor
+    @Getter
     public static class SpawnParticles implements IMessage {
-        private UUID entityUUID;
-        private EnumParticleTypes particleType;
+        private int entityId;
+        private Map<EnumParticleTypes, Integer> bursts;
 
         @Override
         public void toBytes(ByteBuf buf) {
-            ByteBufUtils.writeUTF8String(buf, entityUUID.toString());
-            buf.writeInt(particleType.getParticleID());
+            ByteBufUtils.writeVarInt(buf, entityId, 5);
+            ByteBufUtils.writeVarInt(buf, bursts.size(), 2);
+            bursts.forEach((type, count) -> {
+                ByteBufUtils.writeVarInt(buf, type.getParticleID(), 2);
+                ByteBufUtils.writeVarInt(buf, count, 2);
+            });
         }
 
         @Override
         public void fromBytes(ByteBuf buf) {
-            entityUUID = UUID.fromString(ByteBufUtils.readUTF8String(buf));
-            particleType = EnumParticleTypes.getParticleFromId(buf.readInt());
+            entityId = ByteBufUtils.readVarInt(buf, 5);
+            bursts = new EnumMap<>(EnumParticleTypes.class);
+            int size = ByteBufUtils.readVarInt(buf, 2);
+            for (int i = 0; i < size; i++) {
+                EnumParticleTypes type = EnumParticleTypes.getParticleFromId(ByteBufUtils.readVarInt(buf, 2));
+                int count = ByteBufUtils.readVarInt(buf, 2);
+                if (type != null) bursts.put(type, count);
+            }
         }
     }
 
     public static class SpawnParticlesHandler implements IMessageHandler<SpawnParticles, IMessage> {
         @Override
         public IMessage onMessage(SpawnParticles message, MessageContext ctx) {
-            World world = getPlayerClient().world;
-            java.util.Optional<Entity> entity = world.loadedEntityList.stream().filter((e) -> e.getUniqueID().equals(message.entityUUID)).findFirst();
-            if (!entity.isPresent()) return null;
-            if (entity.get() instanceof EntityVillagerMCA) {
-                EntityVillagerMCA villager = (EntityVillagerMCA) entity.get();
-                villager.spawnParticles(message.particleType);
-            }
+            // Particles must be spawned on the main thread
+            ClientMessageQueue.add(message);
             return null;
         }
     }
@@ -489,37 +424,34 @@ public class NetMCA {
     public static class GetFamilyHandler implements IMessageHandler<GetFamily, IMessage> {
         @Override
         public IMessage onMessage(GetFamily message, MessageContext ctx) {
-            EntityPlayer player = ctx.getServerHandler().player;
-            List<EntityVillagerMCA> villagers = new ArrayList<>();
-            List<NBTTagCompound> familyData = new ArrayList<>();
-
-            player.world.loadedEntityList.stream().filter(e -> e instanceof EntityVillagerMCA).forEach(e -> villagers.add((EntityVillagerMCA)e));
-            villagers.stream().filter(e -> e.isMarriedTo(player.getUniqueID()) || e.playerIsParent(player)).forEach(e -> {
-                NBTTagCompound nbt = new NBTTagCompound();
-                e.writeEntityToNBT(nbt);
-                familyData.add(nbt);
+            EntityPlayerMP player = ctx.getServerHandler().player;
+            player.getServerWorld().addScheduledTask(() -> {
+                List<FamilyMemberSummary> family = FamilyIndex.getFamily(player.world, player.getUniqueID()).stream()
+                        .map(FamilyMemberSummary::fromVillager)
+                        .collect(Collectors.toList());
+                INSTANCE.sendTo(new GetFamilyResponse(family), player);
             });
-            return new GetFamilyResponse(familyData);
+            return null;
         }
     }
 
     @AllArgsConstructor
     @NoArgsConstructor
     public static class GetFamilyResponse implements IMessage {
-        private List<NBTTagCompound> familyData;
+        private List<FamilyMemberSummary> family;
 
         @Override
         public void toBytes(ByteBuf buf) {
-            buf.writeInt(familyData.size());
-            familyData.stream().forEach(n -> ByteBufUtils.writeTag(buf, n));
+            ByteBufUtils.writeVarInt(buf, family.size(), 5);
+            family.forEach(f -> ByteBufUtils.writeTag(buf, f.toNBT()));
         }
 
         @Override
         public void fromBytes(ByteBuf buf) {
-            familyData = new ArrayList<>();
-            int size = buf.readInt();
+            family = new ArrayList<>();
+            int size = ByteBufUtils.readVarInt(buf, 5);
             for (int i = 0; i < size; i++) {
-                familyData.add(ByteBufUtils.readTag(buf));
+                family.add(FamilyMemberSummary.fromNBT(ByteBufUtils.readTag(buf)));
             }
         }
     }
@@ -530,7 +462,7 @@ public class NetMCA {
             GuiScreen screen = Minecraft.getMinecraft().currentScreen;
             if (screen instanceof GuiWhistle) {
                 GuiWhistle whistleScreen = (GuiWhistle)screen;
-                whistleScreen.setVillagerDataList(message.familyData);
+                whistleScreen.setVillagerDataList(message.family);
             }
             return null;
         }
@@ -543,12 +475,12 @@ public class NetMCA {
 
         @Override
         public void toBytes(ByteBuf buf) {
-            ByteBufUtils.writeUTF8String(buf, targetUUID.toString());
+            writeUUID(buf, targetUUID);
         }
 
         @Override
         public void fromBytes(ByteBuf buf) {
-            targetUUID = UUID.fromString(ByteBufUtils.readUTF8String(buf));
+            targetUUID = readUUID(buf);
         }
     }
 
@@ -556,7 +488,7 @@ public class NetMCA {
         @Override
         public IMessage onMessage(CallToPlayer message, MessageContext ctx) {
             EntityPlayer player = ctx.getServerHandler().player;
-            Optional<Entity> entity = player.world.loadedEntityList.stream().filter(e -> e.getUniqueID().equals(message.targetUUID)).findFirst();
+            Optional<Entity> entity = Util.getEntityByUUID(player.world, message.targetUUID).toJavaUtil();
             entity.ifPresent(e -> {
                 e.setPosition(player.posX, player.posY, player.posZ);
                 ((EntityLiving)e).getNavigator().clearPath();
@@ -573,27 +505,30 @@ public class NetMCA {
 
         @Override
         public void toBytes(ByteBuf buf) {
-            ByteBufUtils.writeUTF8String(buf, targetUUID.toString());
+            writeUUID(buf, targetUUID);
             ByteBufUtils.writeUTF8String(buf, profession);
         }
 
         @Override
         public void fromBytes(ByteBuf buf) {
-            targetUUID = UUID.fromString(ByteBufUtils.readUTF8String(buf));
+            targetUUID = readUUID(buf);
             profession = ByteBufUtils.readUTF8String(buf);
         }
     }
 
     public static class SetProfessionHandler implements IMessageHandler<SetProfession, IMessage> {
+        private static final FieldAccessor<VillagerRegistry.VillagerProfession, List<VillagerRegistry.VillagerCareer>> CAREERS =
+                new FieldAccessor<>(VillagerRegistry.VillagerProfession.class, Constants.VILLAGER_PROFESSION_CAREERS_FIELD_INDEX);
+
         @Override
         public IMessage onMessage(SetProfession message, MessageContext ctx) {
             boolean isCareerSet = false;
             EntityPlayer player = ctx.getServerHandler().player;
-            Optional<Entity> entity = player.world.loadedEntityList.stream().filter(e -> e.getUniqueID().equals(message.targetUUID)).findFirst();
+            Optional<Entity> entity = Util.getEntityByUUID(player.world, message.targetUUID).toJavaUtil();
             if (entity.isPresent()) {
                 // Loop through all professions in the registry
                 for (Map.Entry<ResourceLocation, VillagerRegistry.VillagerProfession> professionEntry : ProfessionsMCA.registry.getEntries()) {
-                    List<VillagerRegistry.VillagerCareer> careers = ObfuscationReflectionHelper.getPrivateValue(VillagerRegistry.VillagerProfession.class, professionEntry.getValue(), 3);
+                    List<VillagerRegistry.VillagerCareer> careers = CAREERS.get(professionEntry.getValue());
 
                     // Career ids are based on their index in the careers list
                     for (int i = 0; i < careers.size(); i++) {
@@ -630,13 +565,13 @@ public class NetMCA {
 
         @Override
         public void toBytes(ByteBuf buf) {
-            ByteBufUtils.writeUTF8String(buf, targetUUID.toString());
+            writeUUID(buf, targetUUID);
             ByteBufUtils.writeUTF8String(buf, texture);
         }
 
         @Override
         public void fromBytes(ByteBuf buf) {
-            targetUUID = UUID.fromString(ByteBufUtils.readUTF8String(buf));
+            targetUUID = readUUID(buf);
             texture = ByteBufUtils.readUTF8String(buf);
         }
     }
@@ -645,9 +580,45 @@ public class NetMCA {
         @Override
         public IMessage onMessage(SetTexture message, MessageContext ctx) {
             EntityPlayer player = ctx.getServerHandler().player;
-            Optional<Entity> entity = player.world.loadedEntityList.stream().filter(e -> e.getUniqueID().equals(message.targetUUID)).findFirst();
+            Optional<Entity> entity = Util.getEntityByUUID(player.world, message.targetUUID).toJavaUtil();
             entity.ifPresent(e -> ((EntityVillagerMCA)e).set(EntityVillagerMCA.TEXTURE, message.texture));
             return null;
         }
     }
-}
\ No newline at end of file
+
+    @NoArgsConstructor
+    @Getter
+    public static class PlayerHistoryUpdate implements IMessage {
+        private int entityId;
+        private UUID playerUUID;
+        private NBTTagCompound historyNBT;
+
+        public PlayerHistoryUpdate(int entityId, UUID playerUUID, @Nullable PlayerHistory history) {
+            this.entityId = entityId;
+            this.playerUUID = playerUUID;
+            this.historyNBT = history == null ? null : history.toNBT();
+        }
+
+        @Override
+        public void toBytes(ByteBuf buf) {
+            buf.writeInt(entityId);
+            writeUUID(buf, playerUUID);
+            ByteBufUtils.writeTag(buf, historyNBT);
+        }
+
+        @Override
+        public void fromBytes(ByteBuf buf) {
+            entityId = buf.readInt();
+            playerUUID = readUUID(buf);
+            historyNBT = ByteBufUtils.readTag(buf);
+        }
+    }
+
+    public static class PlayerHistoryUpdateHandler implements IMessageHandler<PlayerHistoryUpdate, IMessage> {
+        @Override
+        public IMessage onMessage(PlayerHistoryUpdate message, MessageContext ctx) {
+            ClientMessageQueue.add(message);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package mca.core.minecraft;
+
+import com.google.common.collect.ImmutableList;
+import mca.core.Constants;
+import mca.entity.EntityVillagerMCA;
+import mca.entity.data.ParentData;
+import net.minecraft.world.World;
+
+import java.util.*;
+
+import static mca.entity.EntityVillagerMCA.PARENTS;
+import static mca.entity.EntityVillagerMCA.SPOUSE_UUID;
+
+/**
+ * FamilyIndex maps each UUID to the loaded MCA villagers that have it as their spouse or as one of their parents.
+ * <p>
+ * Server side only, and only touched from the server thread. Villagers enter and leave the index as they are added
+ * to and removed from their world, which covers births and deaths, and are re-filed whenever their spouse or parents
+ * change.
+ */
+public class FamilyIndex {
+    private static final Map<World, FamilyIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<UUID, Set<EntityVillagerMCA>> villagersByRelative = new HashMap<>();
+    private final Map<EntityVillagerMCA, Set<UUID>> relativesByVillager = new IdentityHashMap<>();
+
+    private static FamilyIndex get(World world) {
+        return INDEXES.computeIfAbsent(world, w -> new FamilyIndex());
+    }
+
+    public static void add(EntityVillagerMCA villager) {
+        get(villager.world).file(villager);
+    }
+
+    public static void remove(EntityVillagerMCA villager) {
+        get(villager.world).unfile(villager);
+    }
+
+    /**
+     * Re-files a villager whose spouse or parents changed. Villagers not yet in the world are left alone; they are
+     * filed with their relatives at that time once added.
+     */
+    public static void update(EntityVillagerMCA villager) {
+        FamilyIndex index = get(villager.world);
+        if (index.relativesByVillager.containsKey(villager)) {
+            index.unfile(villager);
+            index.file(villager);
+        }
+    }
+
+    public static void unload(World world) {
+        INDEXES.remove(world);
+    }
+
+    /**
+     * Returns the loaded villagers married to or parented by the given UUID.
+     */
+    public static List<EntityVillagerMCA> getFamily(World world, UUID uuid) {
+        Set<EntityVillagerMCA> family = get(world).villagersByRelative.get(uuid);
+        return family == null ? Collections.emptyList() : ImmutableList.copyOf(family);
+    }
+
+    private void file(EntityVillagerMCA villager) {
+        Set<UUID> relatives = relativesOf(villager);
+        relativesByVillager.put(villager, relatives);
+        relatives.forEach(uuid -> villagersByRelative.computeIfAbsent(uuid, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(villager));
+    }
+
+    private void unfile(EntityVillagerMCA villager) {
+        Set<UUID> relatives = relativesByVillager.remove(villager);
+        if (relatives == null) return;
+
+        for (UUID uuid : relatives) {
+            Set<EntityVillagerMCA> family = villagersByRelative.get(uuid);
+            if (family != null && family.remove(villager) && family.isEmpty()) villagersByRelative.remove(uuid);
+        }
+    }
+
+    private static Set<UUID> relativesOf(EntityVillagerMCA villager) {
+        ParentData parents = ParentData.fromNBT(villager.get(PARENTS));
+        Set<UUID> relatives = new HashSet<>(Arrays.asList(villager.get(SPOUSE_UUID).or(Constants.ZERO_UUID), parents.getParent1UUID(), parents.getParent2UUID()));
+        relatives.remove(Constants.ZERO_UUID);
+        return relatives;
+    }
+}
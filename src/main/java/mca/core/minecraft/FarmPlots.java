@@ -0,0 +1,248 @@
+package mca.core.minecraft;
+
+import mca.enums.EnumPointOfInterest;
+import net.minecraft.block.BlockCrops;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * FarmPlots keeps track of the crops in the farm plots that farmers work, and which of them are ripe.
+ * <p>
+ * A plot is a fixed box around a farmer's workplace or around crops a farmer came across. Its crops are listed once
+ * from the PointOfInterestIndex when the plot is created and are then kept current by WorldEventListenerMCA's block
+ * update notifications, which includes crops growing on random ticks. Ripe crops are handed out oldest first, and
+ * each is claimed by one farmer at a time so that farmers sharing a plot don't walk to the same crop. Plots may
+ * overlap, so which crops are ripe and claimed is kept for the whole world, and each plot only queues its ripe crops.
+ */
+public class FarmPlots {
+    private static final Map<World, FarmPlots> PLOTS = new WeakHashMap<>();
+
+    private static final int PLOT_RADIUS = 16;
+    private static final int PLOT_HEIGHT = 3;
+    // How long a farmer has to harvest a claimed crop before it's offered to others again
+    private static final int CLAIM_TICKS = 600;
+
+    private final World world;
+    private final Map<Long, Set<FarmPlot>> plotsByChunk = new HashMap<>();
+    // Ripe crops by the time they were found ripe, and claimed crops by the time their claim runs out
+    private final Map<BlockPos, Long> ripe = new HashMap<>();
+    private final Map<BlockPos, Long> claims = new HashMap<>();
+
+    private FarmPlots(World world) {
+        this.world = world;
+    }
+
+    public static FarmPlots get(World world) {
+        return PLOTS.computeIfAbsent(world, FarmPlots::new);
+    }
+
+    public static void remove(World world) {
+        PLOTS.remove(world);
+    }
+
+    /**
+     * Returns the plot containing the given position, creating one centered on it if there is none.
+     */
+    public FarmPlot plotAt(BlockPos pos) {
+        FarmPlot plot = findPlot(pos);
+        if (plot == null) {
+            BlockPos center = pos.toImmutable();
+            plot = new FarmPlot(center);
+            remember(plot);
+
+            // The center itself is never part of the index search results.
+            List<BlockPos> crops = PointOfInterestIndex.get(world).find(EnumPointOfInterest.CROP, center, PLOT_RADIUS, PLOT_HEIGHT).collect(Collectors.toCollection(ArrayList::new));
+            crops.add(center);
+            for (BlockPos crop : crops) {
+                // Crops already known to be ripe through an overlapping plot keep their place in line.
+                Long since = ripe.get(crop);
+                if (since == null) {
+                    onBlockChanged(crop);
+                } else {
+                    plot.crops.add(crop);
+                    plot.queue.add(new RipeCrop(crop, since));
+                }
+            }
+        }
+        return plot;
+    }
+
+    /**
+     * Returns the nearest plot with ripe crops within the given box, creating plots for the crops found on the way.
+     */
+    @Nullable
+    public FarmPlot discover(BlockPos origin, int xzDist, int yDist) {
+        Set<FarmPlot> visited = new HashSet<>();
+        Iterator<BlockPos> crops = PointOfInterestIndex.get(world).find(EnumPointOfInterest.CROP, origin, xzDist, yDist).iterator();
+        while (crops.hasNext()) {
+            BlockPos crop = crops.next();
+            if (visited.stream().anyMatch(p -> p.contains(crop))) continue;
+
+            FarmPlot plot = plotAt(crop);
+            if (plot.hasRipe()) return plot;
+            visited.add(plot);
+        }
+        return null;
+    }
+
+    public void onBlockChanged(BlockPos pos) {
+        List<FarmPlot> plots = plotsContaining(pos);
+        if (plots.isEmpty()) return;
+
+        IBlockState state = world.getBlockState(pos);
+        if (!(state.getBlock() instanceof BlockCrops)) {
+            unmarkRipe(pos);
+            claims.remove(pos);
+            for (FarmPlot plot : plots) plot.crops.remove(pos);
+            return;
+        }
+
+        BlockPos crop = pos.toImmutable();
+        for (FarmPlot plot : plots) plot.crops.add(crop);
+        if (!isRipe(state)) {
+            unmarkRipe(crop);
+            claims.remove(crop);
+        } else if (!ripe.containsKey(crop) && !claims.containsKey(crop)) {
+            markRipe(crop);
+        }
+    }
+
+    public void onChunkUnload(Chunk chunk) {
+        Set<FarmPlot> plots = plotsByChunk.get(ChunkPos.asLong(chunk.x, chunk.z));
+        if (plots != null) new ArrayList<>(plots).forEach(this::forget);
+    }
+
+    @Nullable
+    private FarmPlot findPlot(BlockPos pos) {
+        Set<FarmPlot> plots = plotsByChunk.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        if (plots == null) return null;
+        return plots.stream().filter(p -> p.contains(pos)).findFirst().orElse(null);
+    }
+
+    private List<FarmPlot> plotsContaining(BlockPos pos) {
+        Set<FarmPlot> plots = plotsByChunk.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        List<FarmPlot> containing = new ArrayList<>();
+        if (plots != null) {
+            for (FarmPlot plot : plots) {
+                if (plot.contains(pos)) containing.add(plot);
+            }
+        }
+        return containing;
+    }
+
+    private void remember(FarmPlot plot) {
+        for (int cx = plot.minX >> 4; cx <= plot.maxX >> 4; cx++) {
+            for (int cz = plot.minZ >> 4; cz <= plot.maxZ >> 4; cz++) {
+                plotsByChunk.computeIfAbsent(ChunkPos.asLong(cx, cz), k -> new HashSet<>()).add(plot);
+            }
+        }
+    }
+
+    private void forget(FarmPlot plot) {
+        for (int cx = plot.minX >> 4; cx <= plot.maxX >> 4; cx++) {
+            for (int cz = plot.minZ >> 4; cz <= plot.maxZ >> 4; cz++) {
+                long key = ChunkPos.asLong(cx, cz);
+                Set<FarmPlot> plots = plotsByChunk.get(key);
+                if (plots != null && plots.remove(plot) && plots.isEmpty()) plotsByChunk.remove(key);
+            }
+        }
+
+        // Crops no other plot covers aren't kept current anymore.
+        for (BlockPos crop : plot.crops) {
+            if (findPlot(crop) == null) {
+                ripe.remove(crop);
+                claims.remove(crop);
+            }
+        }
+    }
+
+    private void releaseExpiredClaims() {
+        if (claims.isEmpty()) return;
+
+        long now = world.getTotalWorldTime();
+        List<BlockPos> expired = new ArrayList<>();
+        claims.forEach((crop, until) -> {
+            if (until <= now) expired.add(crop);
+        });
+        for (BlockPos crop : expired) {
+            claims.remove(crop);
+            if (isRipe(world.getBlockState(crop))) markRipe(crop);
+        }
+    }
+
+    private void markRipe(BlockPos crop) {
+        long now = world.getTotalWorldTime();
+        ripe.put(crop, now);
+        for (FarmPlot plot : plotsContaining(crop)) plot.queue.add(new RipeCrop(crop, now));
+    }
+
+    private void unmarkRipe(BlockPos crop) {
+        if (ripe.remove(crop) != null) {
+            for (FarmPlot plot : plotsContaining(crop)) plot.queue.removeIf(c -> c.pos.equals(crop));
+        }
+    }
+
+    private static boolean isRipe(IBlockState state) {
+        return state.getBlock() instanceof BlockCrops && ((BlockCrops) state.getBlock()).isMaxAge(state);
+    }
+
+    public class FarmPlot {
+        private final int minX, minY, minZ, maxX, maxY, maxZ;
+        private final Set<BlockPos> crops = new HashSet<>();
+        // This plot's unclaimed ripe crops, oldest first. A crop leaves the queue of every plot it's in at once.
+        private final PriorityQueue<RipeCrop> queue = new PriorityQueue<>(Comparator.comparingLong((RipeCrop c) -> c.since));
+
+        private FarmPlot(BlockPos center) {
+            this.minX = center.getX() - PLOT_RADIUS;
+            this.maxX = center.getX() + PLOT_RADIUS;
+            this.minY = center.getY() - PLOT_HEIGHT;
+            this.maxY = center.getY() + PLOT_HEIGHT;
+            this.minZ = center.getZ() - PLOT_RADIUS;
+            this.maxZ = center.getZ() + PLOT_RADIUS;
+        }
+
+        public boolean contains(BlockPos pos) {
+            return pos.getX() >= minX && pos.getX() <= maxX && pos.getY() >= minY && pos.getY() <= maxY && pos.getZ() >= minZ && pos.getZ() <= maxZ;
+        }
+
+        public boolean hasRipe() {
+            releaseExpiredClaims();
+            return !queue.isEmpty();
+        }
+
+        /**
+         * Claims the crop that has been ripe the longest for a farmer to harvest, or returns null if none are ripe.
+         */
+        @Nullable
+        public BlockPos claimRipe() {
+            releaseExpiredClaims();
+
+            RipeCrop next;
+            while ((next = queue.poll()) != null) {
+                unmarkRipe(next.pos);
+                if (isRipe(world.getBlockState(next.pos))) {
+                    claims.put(next.pos, world.getTotalWorldTime() + CLAIM_TICKS);
+                    return next.pos;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class RipeCrop {
+        final BlockPos pos;
+        final long since;
+
+        RipeCrop(BlockPos pos, long since) {
+            this.pos = pos;
+            this.since = since;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package mca.core.minecraft;
+
+import mca.enums.EnumPointOfInterest;
+import mca.util.BlockScanner;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * PointOfInterestIndex keeps track of where the blocks villagers look for (beds, crops, logs, ores and water) are
+ * located in each loaded chunk of a world.
+ * <p>
+ * A chunk is indexed the first time a query reaches it and is then kept current by WorldEventListenerMCA's block
+ * update notifications, so repeated searches only walk the handful of known positions rather than every block in
+ * range. Entries are dropped when their chunk unloads.
+ */
+public class PointOfInterestIndex {
+    private static final Map<World, PointOfInterestIndex> INDEXES = new WeakHashMap<>();
+
+    private final World world;
+    private final Map<Long, ChunkEntry> chunks = new HashMap<>();
+
+    private PointOfInterestIndex(World world) {
+        this.world = world;
+    }
+
+    public static PointOfInterestIndex get(World world) {
+        return INDEXES.computeIfAbsent(world, PointOfInterestIndex::new);
+    }
+
+    public static void remove(World world) {
+        INDEXES.remove(world);
+    }
+
+    /**
+     * Streams the positions of all points of interest of the given type within the given box, nearest to the origin
+     * first. The origin itself is never included.
+     *
+     * @param type   Type of point of interest to find
+     * @param origin Center of the searched box
+     * @param xzDist Distance from the origin to search on the X and Z axes
+     * @param yDist  Distance from the origin to search on the Y axis
+     * @return Stream of matching positions ordered by distance to the origin
+     */
+    public Stream<BlockPos> find(EnumPointOfInterest type, BlockPos origin, int xzDist, int yDist) {
+        Iterator<BlockPos> iterator = new NearestFirstIterator(type, origin, xzDist, yDist);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Returns the position nearest to the origin of a point of interest of the given type within the given box.
+     */
+    public Optional<BlockPos> findNearest(EnumPointOfInterest type, BlockPos origin, int xzDist, int yDist) {
+        return find(type, origin, xzDist, yDist).findFirst();
+    }
+
+    public void onBlockChanged(BlockPos pos) {
+        ChunkEntry entry = chunks.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        if (entry == null) return;
+
+        // Water is only of interest at its surface, so the block below may have changed as well.
+        entry.refresh(pos);
+        if (pos.getY() > 0) entry.refresh(pos.down());
+    }
+
+    public void onChunkUnload(Chunk chunk) {
+        chunks.remove(ChunkPos.asLong(chunk.x, chunk.z));
+    }
+
+    @Nullable
+    private ChunkEntry entryFor(int chunkX, int chunkZ) {
+        Chunk chunk = world.getChunkProvider().getLoadedChunk(chunkX, chunkZ);
+        if (chunk == null) return null;
+
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        ChunkEntry entry = chunks.get(key);
+        // Chunks still being populated don't report their block changes, so their entries are only provisional and are
+        // rebuilt once population finished. Chunks at the edge of the loaded area can stay unpopulated for good.
+        if (entry == null || entry.chunk != chunk || (entry.provisional && chunk.isPopulated())) {
+            entry = new ChunkEntry(chunk);
+            chunks.put(key, entry);
+        }
+        return entry;
+    }
+
+    @Nullable
+    private static EnumPointOfInterest classify(Chunk chunk, int x, int y, int z, IBlockState state) {
+        EnumPointOfInterest type = EnumPointOfInterest.byState(state);
+        if (type == EnumPointOfInterest.WATER && chunk.getBlockState(x, y + 1, z).getMaterial() != Material.AIR) {
+            return null;
+        }
+        return type;
+    }
+
+    private static class ChunkEntry {
+        final Chunk chunk;
+        final boolean provisional;
+        final Map<EnumPointOfInterest, Set<BlockPos>> positions = new EnumMap<>(EnumPointOfInterest.class);
+
+        ChunkEntry(Chunk chunk) {
+            this.chunk = chunk;
+            this.provisional = !chunk.isPopulated();
+            for (EnumPointOfInterest type : EnumPointOfInterest.values()) positions.put(type, new HashSet<>());
+
+            int baseX = chunk.x << 4, baseZ = chunk.z << 4;
+            BlockScanner.scanChunk(chunk, (x, y, z, state) -> {
+                EnumPointOfInterest type = classify(chunk, x, y, z, state);
+                if (type != null) positions.get(type).add(new BlockPos(baseX + x, y, baseZ + z));
+            });
+        }
+
+        void refresh(BlockPos pos) {
+            positions.values().forEach(s -> s.remove(pos));
+            EnumPointOfInterest type = classify(chunk, pos.getX(), pos.getY(), pos.getZ(), chunk.getBlockState(pos));
+            if (type != null) positions.get(type).add(pos.toImmutable());
+        }
+    }
+
+    private static class Match {
+        final BlockPos pos;
+        final double distanceSq;
+
+        Match(BlockPos pos, double distanceSq) {
+            this.pos = pos;
+            this.distanceSq = distanceSq;
+        }
+    }
+
+    /**
+     * Visits chunks in order of their closest point to the origin, handing out a match once no unvisited chunk could
+     * contain anything closer.
+     */
+    private class NearestFirstIterator implements Iterator<BlockPos> {
+        private final EnumPointOfInterest type;
+        private final BlockPos origin;
+        private final int minX, minY, minZ, maxX, maxY, maxZ;
+        private final List<long[]> pending = new ArrayList<>();
+        private final PriorityQueue<Match> found = new PriorityQueue<>(Comparator.comparingDouble((Match m) -> m.distanceSq));
+        private int nextChunk = 0;
+
+        NearestFirstIterator(EnumPointOfInterest type, BlockPos origin, int xzDist, int yDist) {
+            this.type = type;
+            this.origin = origin;
+            this.minX = origin.getX() - xzDist;
+            this.maxX = origin.getX() + xzDist;
+            this.minY = origin.getY() - yDist;
+            this.maxY = origin.getY() + yDist;
+            this.minZ = origin.getZ() - xzDist;
+            this.maxZ = origin.getZ() + xzDist;
+
+            // Each pending chunk is stored as {chunkX, chunkZ, minimum squared distance to the origin}
+            for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+                for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                    long dx = axisDistance(origin.getX(), cx << 4, (cx << 4) + 15);
+                    long dz = axisDistance(origin.getZ(), cz << 4, (cz << 4) + 15);
+                    pending.add(new long[]{cx, cz, dx * dx + dz * dz});
+                }
+            }
+            pending.sort(Comparator.comparingLong(c -> c[2]));
+        }
+
+        private long axisDistance(int origin, int min, int max) {
+            return origin < min ? min - origin : origin > max ? origin - max : 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextChunk < pending.size() && (found.isEmpty() || found.peek().distanceSq > pending.get(nextChunk)[2])) {
+                long[] chunk = pending.get(nextChunk++);
+                visit((int) chunk[0], (int) chunk[1]);
+            }
+            return !found.isEmpty();
+        }
+
+        @Override
+        public BlockPos next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return found.poll().pos;
+        }
+
+        private void visit(int chunkX, int chunkZ) {
+            ChunkEntry entry = entryFor(chunkX, chunkZ);
+            if (entry == null) return;
+
+            for (BlockPos pos : entry.positions.get(type)) {
+                if (pos.getX() < minX || pos.getX() > maxX || pos.getY() < minY || pos.getY() > maxY || pos.getZ() < minZ || pos.getZ() > maxZ) {
+                    continue;
+                }
+                if (!pos.equals(origin)) found.add(new Match(pos, pos.distanceSq(origin)));
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package mca.core.minecraft;
+
+import mca.core.MCA;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * TickScheduler spreads the periodic work of villagers across server ticks and keeps it within a per-tick time budget.
+ * <p>
+ * Every job gets a random phase within its period, so villagers that were spawned together don't all run their work on
+ * the same tick. Jobs are polled from their villager's update. Once the work done during the current server tick exceeds
+ * the configured budget, low priority jobs that are due are deferred to a later tick instead. A job is never deferred for
+ * longer than one period, and work that ran late is told how many periods it covers so that nothing is lost.
+ */
+public class TickScheduler {
+    public enum Priority {
+        NORMAL,
+        LOW
+    }
+
+    private static final Random phases = new Random();
+
+    // Only touched from the server thread.
+    private static long spentNanos;
+    private static long ranCount;
+    private static long ranNanos;
+    private static long deferredCount;
+    private static long forcedCount;
+    private static long lateCount;
+    private static long lateTicks;
+    private static long overBudgetTicks;
+    private static boolean overBudget;
+
+    /**
+     * Creates a job that runs every period ticks at a random phase.
+     *
+     * @param period   Number of ticks between runs
+     * @param priority Whether the job may be deferred when the tick is over budget
+     * @param work     The work, given the number of periods elapsed since it last ran. This is more than 1 when it ran late.
+     * @return Job to be polled once per tick by its owner
+     */
+    public static Job schedule(int period, Priority priority, IntConsumer work) {
+        return new Job(period, phases.nextInt(period), priority, work);
+    }
+
+    /**
+     * Resets the budget. Called at the start of every server tick.
+     */
+    public static void startTick() {
+        spentNanos = 0;
+        overBudget = false;
+    }
+
+    private static boolean isOverBudget() {
+        return spentNanos >= MCA.getConfig().villagerTickBudgetMicros * 1000L;
+    }
+
+    public static List<String> describeMetrics() {
+        return Arrays.asList(
+                "Scheduled villager work: " + ranCount + " runs, avg " + (ranCount == 0 ? "-" : TimeUnit.NANOSECONDS.toMicros(ranNanos / ranCount) + "us"),
+                "Deferred under load: " + deferredCount + " times on " + overBudgetTicks + " ticks, " + forcedCount + " forced after a full period",
+                "Ran late: " + lateCount + " runs, avg " + (lateCount == 0 ? "-" : (lateTicks / lateCount) + " ticks") + " late");
+    }
+
+    public static class Job {
+        private final int period;
+        private final int phase;
+        private final Priority priority;
+        private final IntConsumer work;
+        private int due = -1;
+
+        private Job(int period, int phase, Priority priority, IntConsumer work) {
+            this.period = period;
+            this.phase = phase;
+            this.priority = priority;
+            this.work = work;
+        }
+
+        /**
+         * Runs the job if it's due, unless it's low priority and the current tick is over budget.
+         *
+         * @param now The owner's tick counter, which must increase by one on every call
+         */
+        public void tick(int now) {
+            if (due < 0) due = now + phase;
+            if (now < due) return;
+
+            int late = now - due;
+            if (priority == Priority.LOW && isOverBudget()) {
+                if (late < period) {
+                    deferredCount++;
+                    if (!overBudget) {
+                        overBudget = true;
+                        overBudgetTicks++;
+                    }
+                    return;
+                }
+                forcedCount++;
+            }
+
+            int periods = 1 + late / period;
+            due += periods * period;
+
+            long start = System.nanoTime();
+            work.accept(periods);
+            long elapsed = System.nanoTime() - start;
+
+            spentNanos += elapsed;
+            ranCount++;
+            ranNanos += elapsed;
+            if (late > 0) {
+                lateCount++;
+                lateTicks += late;
+            }
+        }
+    }
+}
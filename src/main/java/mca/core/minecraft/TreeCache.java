@@ -0,0 +1,222 @@
+package mca.core.minecraft;
+
+import mca.enums.EnumPointOfInterest;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockLeaves;
+import net.minecraft.block.BlockLog;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * TreeCache knows the shape of the trees around villagers, so they can pick one to chop and fell it as a whole.
+ * <p>
+ * A tree is found by flood-filling the logs connected to a root log on grass or dirt, including diagonal branches. It
+ * counts as a tree when some of its logs touch natural leaves and it has the size and footprint of one: no wider than
+ * the largest vanilla trees, at most a 2x2 trunk at its base, and no logs connected beyond those bounds. Anything else,
+ * such as a log cabin or a tree grown against one, is left alone, since felling it would take a player's build with
+ * it. Each result is cached by every log it contains, negative results included, until a block changes within one
+ * block of it or one of its chunks unloads.
+ */
+public class TreeCache {
+    private static final Map<World, TreeCache> CACHES = new WeakHashMap<>();
+
+    // Bounds of a tree, a little beyond the largest vanilla ones. Anything bigger is more likely a building.
+    private static final int MAX_LOGS = 200;
+    private static final int MAX_RADIUS = 8;
+    private static final int MAX_HEIGHT = 40;
+    // Giant spruce, jungle and dark oak trees have a 2x2 trunk. A row of logs on the ground is a wall.
+    private static final int MAX_BASE_LOGS = 4;
+
+    private final World world;
+    private final Map<BlockPos, Tree> treesByLog = new HashMap<>();
+    private final Map<Long, Set<Tree>> treesByChunk = new HashMap<>();
+
+    private TreeCache(World world) {
+        this.world = world;
+    }
+
+    public static TreeCache get(World world) {
+        return CACHES.computeIfAbsent(world, TreeCache::new);
+    }
+
+    public static void remove(World world) {
+        CACHES.remove(world);
+    }
+
+    /**
+     * Returns the root position of the nearest tree within the given box. The root is the log standing on the ground.
+     */
+    public Optional<BlockPos> findNearest(BlockPos origin, int xzDist, int yDist) {
+        return PointOfInterestIndex.get(world).find(EnumPointOfInterest.LOG, origin, xzDist, yDist)
+                .filter(this::isOnGround)
+                .map(this::getTree)
+                .filter(tree -> tree != null && tree.valid)
+                .map(tree -> tree.root)
+                .findFirst();
+    }
+
+    /**
+     * Removes every log of the tree containing the given log, so that nothing is left floating. Leaves decay as usual.
+     */
+    public void fell(BlockPos log) {
+        Tree tree = getTree(log);
+        if (tree == null || !tree.valid) {
+            world.setBlockToAir(log);
+            return;
+        }
+
+        // Removing the logs invalidates the tree, so walk a copy taken beforehand.
+        for (BlockPos pos : new ArrayList<>(tree.logs)) {
+            if (world.getBlockState(pos).getBlock() instanceof BlockLog) world.setBlockToAir(pos);
+        }
+    }
+
+    public void onBlockChanged(BlockPos pos) {
+        Set<Tree> candidates = treesByChunk.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        if (candidates == null) return;
+
+        List<Tree> affected = new ArrayList<>();
+        for (Tree tree : candidates) {
+            if (tree.isNear(pos)) affected.add(tree);
+        }
+        affected.forEach(this::forget);
+    }
+
+    public void onChunkUnload(Chunk chunk) {
+        Set<Tree> trees = treesByChunk.get(ChunkPos.asLong(chunk.x, chunk.z));
+        if (trees != null) new ArrayList<>(trees).forEach(this::forget);
+    }
+
+    private boolean isOnGround(BlockPos log) {
+        Block below = world.getBlockState(log.down()).getBlock();
+        return below == Blocks.GRASS || below == Blocks.DIRT;
+    }
+
+    @Nullable
+    private Tree getTree(BlockPos log) {
+        Tree tree = treesByLog.get(log);
+        if (tree == null && world.getBlockState(log).getBlock() instanceof BlockLog) {
+            tree = fill(log.toImmutable());
+            if (tree != null) remember(tree);
+        }
+        return tree;
+    }
+
+    /**
+     * Flood-fills the logs connected to the given one. Returns null when part of the tree is in an unloaded chunk, as
+     * its shape can't be known yet. The fill stops early with an invalid result as soon as it's clear the logs aren't a
+     * tree.
+     */
+    @Nullable
+    private Tree fill(BlockPos root) {
+        Tree tree = new Tree(root);
+        Set<BlockPos> visited = new HashSet<>();
+        Deque<BlockPos> queue = new ArrayDeque<>();
+        int baseLogs = 0;
+        visited.add(root);
+        queue.add(root);
+
+        while (!queue.isEmpty()) {
+            BlockPos log = queue.poll();
+            tree.add(log);
+            if (log.getY() == root.getY()) baseLogs++;
+            if (tree.logs.size() > MAX_LOGS || baseLogs > MAX_BASE_LOGS) return tree.invalidate();
+
+            for (EnumFacing facing : EnumFacing.values()) {
+                BlockPos side = log.offset(facing);
+                if (world.isBlockLoaded(side) && isNaturalLeaves(world.getBlockState(side))) tree.valid = true;
+            }
+
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dz = -1; dz <= 1; dz++) {
+                        BlockPos next = log.add(dx, dy, dz);
+                        if (next.getY() < root.getY() || !visited.add(next)) continue;
+
+                        if (!world.isBlockLoaded(next)) return null;
+                        if (!(world.getBlockState(next).getBlock() instanceof BlockLog)) continue;
+
+                        // A log connected out of bounds belongs to something bigger than a tree. It's kept with the
+                        // result so that removing it invalidates the cached result.
+                        if (next.getY() - root.getY() > MAX_HEIGHT
+                                || Math.abs(next.getX() - root.getX()) > MAX_RADIUS || Math.abs(next.getZ() - root.getZ()) > MAX_RADIUS) {
+                            tree.add(next);
+                            return tree.invalidate();
+                        }
+                        queue.add(next);
+                    }
+                }
+            }
+        }
+        return tree;
+    }
+
+    // Leaves placed by players don't decay, so only leaves that do count towards a tree.
+    private static boolean isNaturalLeaves(IBlockState state) {
+        return state.getBlock() instanceof BlockLeaves && state.getPropertyKeys().contains(BlockLeaves.DECAYABLE) && state.getValue(BlockLeaves.DECAYABLE);
+    }
+
+    private void remember(Tree tree) {
+        tree.logs.forEach(log -> treesByLog.put(log, tree));
+        for (int cx = (tree.minX - 1) >> 4; cx <= (tree.maxX + 1) >> 4; cx++) {
+            for (int cz = (tree.minZ - 1) >> 4; cz <= (tree.maxZ + 1) >> 4; cz++) {
+                treesByChunk.computeIfAbsent(ChunkPos.asLong(cx, cz), k -> new HashSet<>()).add(tree);
+            }
+        }
+    }
+
+    private void forget(Tree tree) {
+        tree.logs.forEach(log -> treesByLog.remove(log, tree));
+        for (int cx = (tree.minX - 1) >> 4; cx <= (tree.maxX + 1) >> 4; cx++) {
+            for (int cz = (tree.minZ - 1) >> 4; cz <= (tree.maxZ + 1) >> 4; cz++) {
+                long key = ChunkPos.asLong(cx, cz);
+                Set<Tree> trees = treesByChunk.get(key);
+                if (trees != null && trees.remove(tree) && trees.isEmpty()) treesByChunk.remove(key);
+            }
+        }
+    }
+
+    private static class Tree {
+        final BlockPos root;
+        final List<BlockPos> logs = new ArrayList<>();
+        boolean valid;
+        int minX, minY, minZ, maxX, maxY, maxZ;
+
+        Tree(BlockPos root) {
+            this.root = root;
+            this.minX = maxX = root.getX();
+            this.minY = maxY = root.getY();
+            this.minZ = maxZ = root.getZ();
+        }
+
+        Tree invalidate() {
+            valid = false;
+            return this;
+        }
+
+        void add(BlockPos log) {
+            logs.add(log);
+            minX = Math.min(minX, log.getX());
+            minY = Math.min(minY, log.getY());
+            minZ = Math.min(minZ, log.getZ());
+            maxX = Math.max(maxX, log.getX());
+            maxY = Math.max(maxY, log.getY());
+            maxZ = Math.max(maxZ, log.getZ());
+        }
+
+        // Within one block of the logs' bounding box, so new logs growing into the tree and its leaves count as well.
+        boolean isNear(BlockPos pos) {
+            return pos.getX() >= minX - 1 && pos.getX() <= maxX + 1
+                    && pos.getY() >= minY - 1 && pos.getY() <= maxY + 1
+                    && pos.getZ() >= minZ - 1 && pos.getZ() <= maxZ + 1;
+        }
+    }
+}
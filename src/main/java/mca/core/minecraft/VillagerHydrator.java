@@ -0,0 +1,96 @@
+package mca.core.minecraft;
+
+import com.google.common.collect.MapMaker;
+import mca.core.MCA;
+import mca.entity.data.PreparedVillagerData;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.datafix.FixTypes;
+import net.minecraft.util.datafix.IDataFixer;
+import net.minecraft.util.datafix.IDataWalker;
+import net.minecraftforge.fml.common.FMLCommonHandler;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * VillagerHydrator decodes the saved state of MCA villagers while their chunk is still being read, ahead of the
+ * entities being created on the server thread.
+ * <p>
+ * Every chunk read from disk passes through the data fixer on the chunk I/O thread, where this walker finds villager
+ * tags and prepares their data. When the villager is then read on the server thread it picks up the prepared data for
+ * its tag, leaving only the entity attach. Villagers whose tag was never prepared are decoded on the spot.
+ */
+public class VillagerHydrator implements IDataWalker {
+    private static final String VILLAGER_ID = new ResourceLocation(MCA.MODID, "EntityVillagerMCA").toString();
+    // Weak identity keys, so data for tags that never get read is dropped along with the tag.
+    private static final Map<NBTTagCompound, PreparedVillagerData> PREPARED = new MapMaker().weakKeys().makeMap();
+
+    private static final AtomicLong preparedCount = new AtomicLong();
+    private static final AtomicLong prepareNanos = new AtomicLong();
+    private static final AtomicLong warmReads = new AtomicLong();
+    private static final AtomicLong warmReadNanos = new AtomicLong();
+    private static final AtomicLong coldReads = new AtomicLong();
+    private static final AtomicLong coldReadNanos = new AtomicLong();
+
+    public static void register() {
+        FMLCommonHandler.instance().getDataFixer().registerWalker(FixTypes.CHUNK, new VillagerHydrator());
+    }
+
+    @Override
+    public NBTTagCompound process(IDataFixer fixer, NBTTagCompound compound, int versionIn) {
+        // Never let a problem here stop the chunk from loading; the villager is decoded again when it's read.
+        try {
+            NBTTagList entities = compound.getCompoundTag("Level").getTagList("Entities", 10);
+            for (int i = 0; i < entities.tagCount(); i++) prepare(entities.getCompoundTagAt(i));
+        } catch (RuntimeException e) {
+            MCA.getLog().error("Failed to prepare villagers of a chunk", e);
+        }
+        return compound;
+    }
+
+    private static void prepare(NBTTagCompound entity) {
+        if (VILLAGER_ID.equals(entity.getString("id"))) {
+            long start = System.nanoTime();
+            PREPARED.put(entity, PreparedVillagerData.fromNBT(entity));
+            prepareNanos.addAndGet(System.nanoTime() - start);
+            preparedCount.incrementAndGet();
+        }
+
+        NBTTagList passengers = entity.getTagList("Passengers", 10);
+        for (int i = 0; i < passengers.tagCount(); i++) prepare(passengers.getCompoundTagAt(i));
+    }
+
+    /**
+     * Returns and forgets the data prepared for a villager tag, or null if it was not prepared.
+     */
+    @Nullable
+    public static PreparedVillagerData take(NBTTagCompound nbt) {
+        return PREPARED.remove(nbt);
+    }
+
+    /**
+     * Records the server thread time spent reading a villager, split by whether its data had been prepared.
+     */
+    public static void recordRead(boolean prepared, long nanos) {
+        (prepared ? warmReads : coldReads).incrementAndGet();
+        (prepared ? warmReadNanos : coldReadNanos).addAndGet(nanos);
+    }
+
+    public static List<String> describeMetrics() {
+        return Arrays.asList(
+                "Prepared off-thread: " + preparedCount.get() + " villagers, avg " + average(prepareNanos, preparedCount),
+                "Read with prepared data: " + warmReads.get() + " villagers, avg " + average(warmReadNanos, warmReads),
+                "Read without prepared data: " + coldReads.get() + " villagers, avg " + average(coldReadNanos, coldReads));
+    }
+
+    private static String average(AtomicLong nanos, AtomicLong count) {
+        long n = count.get();
+        return n == 0 ? "-" : TimeUnit.NANOSECONDS.toMicros(nanos.get() / n) + "us";
+    }
+}
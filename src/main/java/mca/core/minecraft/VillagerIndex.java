@@ -0,0 +1,38 @@
+package mca.core.minecraft;
+
+import mca.entity.EntityVillagerMCA;
+import net.minecraft.world.World;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * VillagerIndex maps the UUID of every MCA villager loaded in a world to its entity, on both the server and the
+ * client. It is kept current by WorldEventListenerMCA as entities are added to and removed from the world.
+ */
+public class VillagerIndex {
+    private static final Map<World, Map<UUID, EntityVillagerMCA>> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static Map<UUID, EntityVillagerMCA> villagersIn(World world) {
+        return INDEXES.computeIfAbsent(world, w -> new ConcurrentHashMap<>());
+    }
+
+    public static void add(EntityVillagerMCA villager) {
+        villagersIn(villager.world).put(villager.getUniqueID(), villager);
+    }
+
+    public static void remove(EntityVillagerMCA villager) {
+        // Only remove the mapping if it still points to this entity, a newer copy may have replaced it.
+        villagersIn(villager.world).remove(villager.getUniqueID(), villager);
+    }
+
+    public static void unload(World world) {
+        INDEXES.remove(world);
+    }
+
+    @Nullable
+    public static EntityVillagerMCA get(World world, UUID uuid) {
+        return villagersIn(world).get(uuid);
+    }
+}
@@ -1,22 +1,29 @@
 package mca.entity;
 
 import com.google.common.base.Optional;
-import com.google.common.base.Predicate;
 import mca.api.API;
 import mca.api.types.APIButton;
 import mca.core.Constants;
 import mca.core.MCA;
 import mca.core.forge.NetMCA;
+import mca.core.minecraft.FamilyIndex;
 import mca.core.minecraft.ItemsMCA;
+import mca.core.minecraft.PointOfInterestIndex;
 import mca.core.minecraft.ProfessionsMCA;
+import mca.core.minecraft.TickScheduler;
+import mca.core.minecraft.VillagerHydrator;
 import mca.entity.ai.*;
 import mca.entity.data.ParentData;
 import mca.entity.data.PlayerHistory;
 import mca.entity.data.PlayerSaveData;
+import mca.entity.data.PreparedVillagerData;
+import mca.entity.data.RelationshipGraph;
 import mca.entity.data.SavedVillagers;
+import mca.entity.data.VillagerRecord;
 import mca.entity.inventory.InventoryMCA;
 import mca.enums.*;
 import mca.items.ItemSpecialCaseGift;
+import mca.util.FieldAccessor;
 import mca.util.ItemStackCache;
 import mca.util.ResourceLocationCache;
 import mca.util.Util;
@@ -24,10 +31,9 @@ import net.minecraft.block.BlockBed;
 import net.minecraft.block.BlockHorizontal;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.IEntityLivingData;
 import net.minecraft.entity.SharedMonsterAttributes;
 import net.minecraft.entity.ai.*;
-import net.minecraft.entity.monster.EntityVex;
-import net.minecraft.entity.monster.EntityVindicator;
 import net.minecraft.entity.monster.EntityZombie;
 import net.minecraft.entity.passive.EntityHorse;
 import net.minecraft.entity.passive.EntityVillager;
@@ -46,12 +52,13 @@ import net.minecraft.network.datasync.EntityDataManager;
 import net.minecraft.util.*;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
-import net.minecraft.util.registry.RegistryNamespaced;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.TextComponentString;
 import net.minecraft.util.text.TextComponentTranslation;
+import net.minecraft.village.MerchantRecipeList;
+import net.minecraft.world.DifficultyInstance;
 import net.minecraft.world.World;
-import net.minecraftforge.fml.common.ObfuscationReflectionHelper;
+import net.minecraft.world.WorldServer;
 import net.minecraftforge.fml.common.registry.VillagerRegistry;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
@@ -66,13 +73,14 @@ import static net.minecraft.block.BlockBed.PART;
 public class EntityVillagerMCA extends EntityVillager {
     public static final int VANILLA_CAREER_ID_FIELD_INDEX = 13;
     public static final int VANILLA_CAREER_LEVEL_FIELD_INDEX = 14;
+    public static final FieldAccessor<EntityVillager, Integer> VANILLA_CAREER_ID = new FieldAccessor<>(EntityVillager.class, VANILLA_CAREER_ID_FIELD_INDEX);
+    public static final FieldAccessor<EntityVillager, Integer> VANILLA_CAREER_LEVEL = new FieldAccessor<>(EntityVillager.class, VANILLA_CAREER_LEVEL_FIELD_INDEX);
 
     public static final DataParameter<String> VILLAGER_NAME = EntityDataManager.createKey(EntityVillagerMCA.class, DataSerializers.STRING);
     public static final DataParameter<String> TEXTURE = EntityDataManager.createKey(EntityVillagerMCA.class, DataSerializers.STRING);
     public static final DataParameter<Integer> GENDER = EntityDataManager.createKey(EntityVillagerMCA.class, DataSerializers.VARINT);
     public static final DataParameter<Float> GIRTH = EntityDataManager.createKey(EntityVillagerMCA.class, DataSerializers.FLOAT);
     public static final DataParameter<Float> TALLNESS = EntityDataManager.createKey(EntityVillagerMCA.class, DataSerializers.FLOAT);
-    public static final DataParameter<NBTTagCompound> PLAYER_HISTORY_MAP = EntityDataManager.createKey(EntityVillagerMCA.class, DataSerializers.COMPOUND_TAG);
     public static final DataParameter<Integer> MOVE_STATE = EntityDataManager.createKey(EntityVillagerMCA.class, DataSerializers.VARINT);
     public static final DataParameter<String> SPOUSE_NAME = EntityDataManager.createKey(EntityVillagerMCA.class, DataSerializers.STRING);
     public static final DataParameter<Optional<UUID>> SPOUSE_UUID = EntityDataManager.createKey(EntityVillagerMCA.class, DataSerializers.OPTIONAL_UNIQUE_ID);
@@ -91,17 +99,28 @@ public class EntityVillagerMCA extends EntityVillager {
     public static final DataParameter<BlockPos> WORKPLACE_POS = EntityDataManager.createKey(EntityVillagerMCA.class, DataSerializers.BLOCK_POS);
     public static final DataParameter<BlockPos> HANGOUT_POS = EntityDataManager.createKey(EntityVillagerMCA.class, DataSerializers.BLOCK_POS);
     public static final DataParameter<Boolean> SLEEPING = EntityDataManager.createKey(EntityVillagerMCA.class, DataSerializers.BOOLEAN);
-
-    private static final Predicate<EntityVillagerMCA> BANDIT_TARGET_SELECTOR = (v) -> v.getProfessionForge() != ProfessionsMCA.bandit && v.getProfessionForge() != ProfessionsMCA.child;
-    private static final Predicate<EntityVillagerMCA> GUARD_TARGET_SELECTOR = (v) -> v.getProfessionForge() == ProfessionsMCA.bandit;
+    public static final DataParameter<Integer> CAREER_ID = EntityDataManager.createKey(EntityVillagerMCA.class, DataSerializers.VARINT);
 
     public final InventoryMCA inventory;
     public int babyAge = 0;
     public UUID playerToFollowUUID = Constants.ZERO_UUID;
 
+    private final Map<UUID, PlayerHistory> playerHistory = new HashMap<>();
+    private final Map<EnumParticleTypes, Integer> pendingParticles = new EnumMap<>(EnumParticleTypes.class);
     private BlockPos home = BlockPos.ORIGIN;
     private int startingAge = 0;
     private float swingProgressTicks;
+    private SpecialAITemplate specialAI;
+    private EnumAILevel aiLevel = EnumAILevel.FULL;
+    private EnumChore activeChore = EnumChore.NONE;
+    // Assigned by initEntityAI(), which runs from the superclass constructor, so it must not have an initializer.
+    private EntityAIChores choresAI;
+
+    // Periodic server work, phased and budgeted by the TickScheduler.
+    private final TickScheduler.Job babyJob = TickScheduler.schedule(20, TickScheduler.Priority.LOW, this::updateBaby); // Every second
+    private final TickScheduler.Job healJob = TickScheduler.schedule(200, TickScheduler.Priority.LOW, this::heal); // Every 10 seconds
+    private final TickScheduler.Job fatigueJob = TickScheduler.schedule(6000, TickScheduler.Priority.LOW, this::decayInteractionFatigue); // Every 5 minutes
+    private final TickScheduler.Job aiLevelJob = TickScheduler.schedule(20, TickScheduler.Priority.NORMAL, this::updateAILevel); // Every second
 
     public float renderOffsetX;
     public float renderOffsetY;
@@ -115,6 +134,13 @@ public class EntityVillagerMCA extends EntityVillager {
     public EntityVillagerMCA(World worldIn) {
         super(worldIn);
         inventory = new InventoryMCA(this);
+
+        if (worldIn != null && worldIn.isRemote) {
+            // The career ID and level are randomized client-side by populateBuyingList() when either is 0, which would throw off the
+            // career ID synced from the server. The level is only used for trading, so any non-zero value keeps it from running.
+            VANILLA_CAREER_ID.set(this, 1);
+            VANILLA_CAREER_LEVEL.set(this, 1);
+        }
     }
 
     public EntityVillagerMCA(World worldIn, Optional<VillagerRegistry.VillagerProfession> profession, Optional<EnumGender> gender) {
@@ -140,7 +166,6 @@ public class EntityVillagerMCA extends EntityVillager {
         this.dataManager.register(GENDER, EnumGender.MALE.getId());
         this.dataManager.register(GIRTH, 0.0F);
         this.dataManager.register(TALLNESS, 0.0F);
-        this.dataManager.register(PLAYER_HISTORY_MAP, new NBTTagCompound());
         this.dataManager.register(MOVE_STATE, EnumMoveState.MOVE.getId());
         this.dataManager.register(SPOUSE_NAME, "");
         this.dataManager.register(SPOUSE_UUID, Optional.of(Constants.ZERO_UUID));
@@ -159,9 +184,35 @@ public class EntityVillagerMCA extends EntityVillager {
         this.dataManager.register(WORKPLACE_POS, BlockPos.ORIGIN);
         this.dataManager.register(HANGOUT_POS, BlockPos.ORIGIN);
         this.dataManager.register(SLEEPING, false);
+        this.dataManager.register(CAREER_ID, 1);
         this.setSilent(false);
     }
 
+    @Override
+    public void notifyDataManagerChange(DataParameter<?> key) {
+        super.notifyDataManagerChange(key);
+
+        // The career ID is held in a private vanilla field which we keep in step with its data managed copy on the client.
+        if (world != null && world.isRemote && CAREER_ID.equals(key)) VANILLA_CAREER_ID.set(this, get(CAREER_ID));
+
+        // Kept as a field so the chore AI and held item don't have to look it up every tick.
+        if (ACTIVE_CHORE.equals(key)) {
+            activeChore = EnumChore.byId(get(ACTIVE_CHORE));
+            if (choresAI != null) choresAI.onChoreChanged(activeChore);
+        }
+
+        // Marriages, divorces and adoptions move the villager between families. A marriage the graph refuses, because
+        // the spouse is married to someone else, is ended on this side as well.
+        if (world != null && !world.isRemote && SPOUSE_UUID.equals(key)) {
+            if (!RelationshipGraph.get(world).setSpouse(getUniqueID(), get(SPOUSE_UUID).orNull())) endMarriage();
+            FamilyIndex.update(this);
+        } else if (world != null && !world.isRemote && PARENTS.equals(key)) {
+            ParentData parents = ParentData.fromNBT(get(PARENTS));
+            RelationshipGraph.get(world).setParents(getUniqueID(), parents.getParent1UUID(), parents.getParent2UUID());
+            FamilyIndex.update(this);
+        }
+    }
+
     @Override
     protected void applyEntityAttributes() {
         super.applyEntityAttributes();
@@ -189,79 +240,90 @@ public class EntityVillagerMCA extends EntityVillager {
 
     @Override
     public void readEntityFromNBT(NBTTagCompound nbt) {
+        long start = System.nanoTime();
+        PreparedVillagerData prepared = VillagerHydrator.take(nbt);
+        PreparedVillagerData data = prepared != null ? prepared : PreparedVillagerData.fromNBT(nbt);
+
         super.readEntityFromNBT(nbt);
-        set(VILLAGER_NAME, nbt.getString("name"));
-        set(GENDER, nbt.getInteger("gender"));
-        set(TEXTURE, nbt.getString("texture"));
-        set(GIRTH, nbt.getFloat("girth"));
-        set(TALLNESS, nbt.getFloat("tallness"));
-        set(PLAYER_HISTORY_MAP, nbt.getCompoundTag("playerHistoryMap"));
-        set(MOVE_STATE, nbt.getInteger("moveState"));
-        set(MARRIAGE_STATE, nbt.getInteger("marriageState"));
-        set(SPOUSE_UUID, Optional.of(nbt.getUniqueId("spouseUUID")));
-        set(SPOUSE_NAME, nbt.getString("spouseName"));
-        set(IS_PROCREATING, nbt.getBoolean("isProcreating"));
-        set(IS_INFECTED, nbt.getBoolean("infected"));
-        set(AGE_STATE, nbt.getInteger("ageState"));
-        set(ACTIVE_CHORE, nbt.getInteger("activeChore"));
-        set(CHORE_ASSIGNING_PLAYER, Optional.of(nbt.getUniqueId("choreAssigningPlayer")));
-        set(HAS_BABY, nbt.getBoolean("hasBaby"));
-        set(BABY_IS_MALE, nbt.getBoolean("babyIsMale"));
+        VillagerRecord record = data.getRecord();
+        set(VILLAGER_NAME, record.getName());
+        set(GENDER, record.getGender());
+        set(TEXTURE, record.getTexture());
+        set(GIRTH, record.getGirth());
+        set(TALLNESS, record.getTallness());
+        attachPlayerHistory(data.getPlayerHistory());
+        set(MOVE_STATE, record.getMoveState());
+
+        // The marriage may have ended while the villager was unloaded, by the spouse's death or a later marriage.
+        boolean outdatedSpouse = !world.isRemote && RelationshipGraph.get(world).isOutdatedSpouse(getUniqueID(), record.getSpouseUUID());
+        set(MARRIAGE_STATE, outdatedSpouse ? EnumMarriageState.NOT_MARRIED.getId() : record.getMarriageState());
+        set(SPOUSE_UUID, Optional.of(outdatedSpouse ? Constants.ZERO_UUID : record.getSpouseUUID()));
+        set(SPOUSE_NAME, outdatedSpouse ? "" : record.getSpouseName());
+        set(IS_PROCREATING, record.isProcreating());
+        set(IS_INFECTED, record.isInfected());
+        set(AGE_STATE, record.getAgeState());
+        set(ACTIVE_CHORE, record.getActiveChore());
+        set(CHORE_ASSIGNING_PLAYER, Optional.of(record.getChoreAssigningPlayer()));
+        set(HAS_BABY, record.isHasBaby());
+        set(BABY_IS_MALE, record.isBabyIsMale());
         set(PARENTS, nbt.getCompoundTag("parents"));
-        set(BED_POS, new BlockPos(nbt.getInteger("bedX"), nbt.getInteger("bedY"), nbt.getInteger("bedZ")));
-        set(HANGOUT_POS, new BlockPos(nbt.getInteger("hangoutX"), nbt.getInteger("hangoutY"), nbt.getInteger("hangoutZ")));
-        set(WORKPLACE_POS, new BlockPos(nbt.getInteger("workplaceX"), nbt.getInteger("workplaceY"), nbt.getInteger("workplaceZ")));
-        set(SLEEPING, nbt.getBoolean("sleeping"));
+        set(BED_POS, record.getBedPos());
+        set(HANGOUT_POS, record.getHangoutPos());
+        set(WORKPLACE_POS, record.getWorkplacePos());
+        set(SLEEPING, record.isSleeping());
+        set(CAREER_ID, VANILLA_CAREER_ID.get(this));
         inventory.readInventoryFromNBT(nbt.getTagList("inventory", 10));
 
+        // Villagers read client-side are display copies that will never receive equipment updates, so equip them from their inventory.
+        if (world.isRemote) {
+            for (EntityEquipmentSlot slot : EntityEquipmentSlot.values()) setItemStackToSlot(slot, getEquipmentFromInventory(slot));
+        }
+
         // Vanilla Age doesn't apply from the superclass call. Causes children to revert to the starting age on world reload.
-        this.startingAge = nbt.getInteger("startingAge");
+        this.startingAge = record.getStartingAge();
         setGrowingAge(nbt.getInteger("Age"));
 
-        this.home = new BlockPos(nbt.getDouble("homePositionX"), nbt.getDouble("homePositionY"), nbt.getDouble("homePositionZ"));
-        this.playerToFollowUUID = nbt.getUniqueId("playerToFollowUUID");
-        this.babyAge = nbt.getInteger("babyAge");
+        this.home = record.getHome();
+        this.playerToFollowUUID = record.getPlayerToFollowUUID();
+        this.babyAge = record.getBabyAge();
 
         applySpecialAI();
+        VillagerHydrator.recordRead(prepared != null, System.nanoTime() - start);
     }
 
     @Override
     public void writeEntityToNBT(NBTTagCompound nbt) {
         super.writeEntityToNBT(nbt);
         nbt.setUniqueId("uuid", this.getUniqueID()); // for SavedVillagers
-        nbt.setString("name", get(VILLAGER_NAME));
-        nbt.setString("texture", get(TEXTURE));
-        nbt.setInteger("gender", get(GENDER));
-        nbt.setFloat("girth", get(GIRTH));
-        nbt.setFloat("tallness", get(TALLNESS));
-        nbt.setTag("playerHistoryMap", get(PLAYER_HISTORY_MAP));
-        nbt.setInteger("moveState", get(MOVE_STATE));
-        nbt.setInteger("marriageState", get(MARRIAGE_STATE));
-        nbt.setDouble("homePositionX", home.getX());
-        nbt.setDouble("homePositionY", home.getY());
-        nbt.setDouble("homePositionZ", home.getZ());
-        nbt.setUniqueId("playerToFollowUUID", playerToFollowUUID);
-        nbt.setUniqueId("spouseUUID", get(SPOUSE_UUID).or(Constants.ZERO_UUID));
-        nbt.setString("spouseName", get(SPOUSE_NAME));
-        nbt.setBoolean("isProcreating", get(IS_PROCREATING));
-        nbt.setBoolean("infected", get(IS_INFECTED));
-        nbt.setInteger("ageState", get(AGE_STATE));
-        nbt.setInteger("startingAge", startingAge);
-        nbt.setInteger("activeChore", get(ACTIVE_CHORE));
-        nbt.setUniqueId("choreAssigningPlayer", get(CHORE_ASSIGNING_PLAYER).or(Constants.ZERO_UUID));
+        VillagerRecord record = new VillagerRecord();
+        record.setName(get(VILLAGER_NAME));
+        record.setTexture(get(TEXTURE));
+        record.setGender(get(GENDER));
+        record.setGirth(get(GIRTH));
+        record.setTallness(get(TALLNESS));
+        record.setMoveState(get(MOVE_STATE));
+        record.setMarriageState(get(MARRIAGE_STATE));
+        record.setHome(home);
+        record.setPlayerToFollowUUID(playerToFollowUUID);
+        record.setSpouseUUID(get(SPOUSE_UUID).or(Constants.ZERO_UUID));
+        record.setSpouseName(get(SPOUSE_NAME));
+        record.setProcreating(get(IS_PROCREATING));
+        record.setInfected(get(IS_INFECTED));
+        record.setHasBaby(get(HAS_BABY));
+        record.setBabyIsMale(get(BABY_IS_MALE));
+        record.setAgeState(get(AGE_STATE));
+        record.setStartingAge(startingAge);
+        record.setActiveChore(get(ACTIVE_CHORE));
+        record.setChoreAssigningPlayer(get(CHORE_ASSIGNING_PLAYER).or(Constants.ZERO_UUID));
+        record.setBabyAge(babyAge);
+        record.setBedPos(get(BED_POS));
+        record.setWorkplacePos(get(WORKPLACE_POS));
+        record.setHangoutPos(get(HANGOUT_POS));
+        record.setSleeping(get(SLEEPING));
+        record.writeToNBT(nbt);
+        nbt.setTag("playerHistoryMap", writePlayerHistoryToNBT());
         nbt.setTag("inventory", inventory.writeInventoryToNBT());
-        nbt.setInteger("babyAge", babyAge);
         nbt.setTag("parents", get(PARENTS));
-        nbt.setInteger("bedX", get(BED_POS).getX());
-        nbt.setInteger("bedY", get(BED_POS).getY());
-        nbt.setInteger("bedZ", get(BED_POS).getZ());
-        nbt.setInteger("workplaceX", get(WORKPLACE_POS).getX());
-        nbt.setInteger("workplaceY", get(WORKPLACE_POS).getY());
-        nbt.setInteger("workplaceZ", get(WORKPLACE_POS).getZ());
-        nbt.setInteger("hangoutX", get(HANGOUT_POS).getX());
-        nbt.setInteger("hangoutY", get(HANGOUT_POS).getY());
-        nbt.setInteger("hangoutZ", get(HANGOUT_POS).getZ());
-        nbt.setBoolean("sleeping", get(SLEEPING));
     }
 
     @Override
@@ -286,6 +348,7 @@ public class EntityVillagerMCA extends EntityVillager {
 
         if (this.isServerWorld()) {
             onEachServerUpdate();
+            sendPendingParticles();
         } else {
             onEachClientUpdate();
         }
@@ -326,8 +389,10 @@ public class EntityVillagerMCA extends EntityVillager {
             inventory.dropAllItems();
             inventory.clear(); //fixes issue #1227, dropAllItems() should clear, but it does not work
 
-            if (isMarried()) {
-                UUID spouseUUID = get(SPOUSE_UUID).or(Constants.ZERO_UUID);
+            RelationshipGraph relationships = RelationshipGraph.get(world);
+            java.util.Optional<UUID> spouseInGraph = relationships.getSpouse(getUniqueID());
+            if (spouseInGraph.isPresent()) {
+                UUID spouseUUID = spouseInGraph.get();
                 Optional<EntityVillagerMCA> spouse = Util.getEntityByUUID(world, spouseUUID, EntityVillagerMCA.class);
                 PlayerSaveData playerSaveData = PlayerSaveData.getExisting(world, spouseUUID);
 
@@ -344,13 +409,11 @@ public class EntityVillagerMCA extends EntityVillager {
             }
 
             // Notify all parents of the death
-            ParentData parents = ParentData.fromNBT(get(PARENTS));
-            Arrays.stream(parents.getParentEntities(world))
-                    .filter(e -> e instanceof EntityPlayer)
-                    .forEach(e -> {
-                        EntityPlayer player = (EntityPlayer) e;
-                        player.sendMessage(new TextComponentString(Constants.Color.RED + MCA.getLocalizer().localize("notify.childdied", get(VILLAGER_NAME), cause.getImmediateSource().getName())));
-                    });
+            relationships.getParents(getUniqueID()).stream()
+                    .map(world::getPlayerEntityByUUID)
+                    .filter(Objects::nonNull)
+                    .forEach(player -> player.sendMessage(new TextComponentString(Constants.Color.RED + MCA.getLocalizer().localize("notify.childdied", get(VILLAGER_NAME), cause.getImmediateSource().getName()))));
+            relationships.forget(getUniqueID());
 
             SavedVillagers.get(world).save(this);
         }
@@ -425,9 +488,15 @@ public class EntityVillagerMCA extends EntityVillager {
     @Override
     @Nonnull
     public ItemStack getItemStackFromSlot(EntityEquipmentSlot slotIn) {
+        // Clients only know the equipment the server sends whenever the result below changes, not the whole inventory.
+        if (world.isRemote) return super.getItemStackFromSlot(slotIn);
+        else return getEquipmentFromInventory(slotIn);
+    }
+
+    private ItemStack getEquipmentFromInventory(EntityEquipmentSlot slotIn) {
         if (slotIn == EntityEquipmentSlot.MAINHAND) {
             VillagerRegistry.VillagerProfession profession = getProfessionForge();
-            EnumChore chore = EnumChore.byId(get(ACTIVE_CHORE));
+            EnumChore chore = activeChore;
             if (get(HAS_BABY)) {
                 return ItemStackCache.get(get(BABY_IS_MALE) ? ItemsMCA.BABY_BOY : ItemsMCA.BABY_GIRL);
             } else if (chore != EnumChore.NONE) {
@@ -446,22 +515,77 @@ public class EntityVillagerMCA extends EntityVillager {
     }
 
     public PlayerHistory getPlayerHistoryFor(UUID uuid) {
-        if (!get(PLAYER_HISTORY_MAP).hasKey(uuid.toString())) {
-            updatePlayerHistoryMap(PlayerHistory.getNew(this, uuid));
+        PlayerHistory history = playerHistory.get(uuid);
+        if (history == null) {
+            history = PlayerHistory.getNew(this, uuid);
+            updatePlayerHistoryMap(history);
         }
-        return PlayerHistory.fromNBT(this, uuid, get(PLAYER_HISTORY_MAP).getCompoundTag(uuid.toString()));
+        return history;
     }
 
+    /**
+     * Stores the provided history as the in-memory record for its player and, server-side, sends the changed
+     * entry to that player alone. Other players never see or need each other's history.
+     */
     public void updatePlayerHistoryMap(PlayerHistory history) {
-        NBTTagCompound nbt = get(PLAYER_HISTORY_MAP);
-        nbt.setTag(history.getPlayerUUID().toString(), history.toNBT());
-        set(PLAYER_HISTORY_MAP, nbt);
-        this.dataManager.setDirty(PLAYER_HISTORY_MAP);
+        playerHistory.put(history.getPlayerUUID(), history);
+
+        if (!world.isRemote) {
+            EntityPlayer player = world.getPlayerEntityByUUID(history.getPlayerUUID());
+            if (player instanceof EntityPlayerMP && isTrackedBy((EntityPlayerMP) player)) {
+                NetMCA.INSTANCE.sendTo(new NetMCA.PlayerHistoryUpdate(getEntityId(), history.getPlayerUUID(), history), (EntityPlayerMP) player);
+            }
+        }
+    }
+
+    /**
+     * Sends the provided player their own history with this villager, if any. Called when the player starts tracking us.
+     */
+    public void syncPlayerHistoryTo(EntityPlayerMP player) {
+        PlayerHistory history = playerHistory.get(player.getUniqueID());
+        if (history != null) {
+            NetMCA.INSTANCE.sendTo(new NetMCA.PlayerHistoryUpdate(getEntityId(), player.getUniqueID(), history), player);
+        }
+    }
+
+    /**
+     * Applies a history entry received from the server. A null NBT compound means the entry was removed.
+     */
+    @SideOnly(Side.CLIENT)
+    public void applySyncedPlayerHistory(UUID uuid, @Nullable NBTTagCompound nbt) {
+        if (nbt == null) {
+            playerHistory.remove(uuid);
+        } else {
+            playerHistory.put(uuid, PlayerHistory.fromNBT(this, uuid, nbt));
+        }
+    }
+
+    private boolean isTrackedBy(EntityPlayerMP player) {
+        return ((WorldServer) world).getEntityTracker().getTrackingPlayers(this).contains(player);
+    }
+
+    private void attachPlayerHistory(Map<UUID, PlayerHistory> history) {
+        playerHistory.clear();
+        history.forEach((uuid, entry) -> {
+            entry.attachTo(this);
+            playerHistory.put(uuid, entry);
+        });
+    }
+
+    private NBTTagCompound writePlayerHistoryToNBT() {
+        NBTTagCompound nbt = new NBTTagCompound();
+        playerHistory.forEach((uuid, history) -> nbt.setTag(uuid.toString(), history.toNBT()));
+        return nbt;
     }
 
     public void reset() {
-        set(PLAYER_HISTORY_MAP, new NBTTagCompound());
-        dataManager.setDirty(PLAYER_HISTORY_MAP);
+        if (!world.isRemote) {
+            // Tell any tracking player that had history with us that it's gone.
+            ((WorldServer) world).getEntityTracker().getTrackingPlayers(this).stream()
+                    .filter(p -> p instanceof EntityPlayerMP && playerHistory.containsKey(p.getUniqueID()))
+                    .forEach(p -> NetMCA.INSTANCE.sendTo(new NetMCA.PlayerHistoryUpdate(getEntityId(), p.getUniqueID(), null), (EntityPlayerMP) p));
+        }
+        playerHistory.clear();
 
         setHealth(20.0F);
 
@@ -472,11 +596,34 @@ public class EntityVillagerMCA extends EntityVillager {
     }
 
     public VillagerRegistry.VillagerCareer getVanillaCareer() {
-        return this.getProfessionForge().getCareer(ObfuscationReflectionHelper.getPrivateValue(EntityVillager.class, this, VANILLA_CAREER_ID_FIELD_INDEX));
+        return this.getProfessionForge().getCareer(VANILLA_CAREER_ID.get(this));
     }
 
     public void setVanillaCareer(int careerId) {
-        ObfuscationReflectionHelper.setPrivateValue(EntityVillager.class, this, careerId, VANILLA_CAREER_ID_FIELD_INDEX);
+        VANILLA_CAREER_ID.set(this, careerId);
+        set(CAREER_ID, careerId);
+    }
+
+    // Vanilla picks a career on its own when it first populates the trades, which happens in these two places.
+    @Override
+    @Nullable
+    public MerchantRecipeList getRecipes(EntityPlayer player) {
+        MerchantRecipeList recipes = super.getRecipes(player);
+        syncCareerId();
+        return recipes;
+    }
+
+    @Override
+    @Nullable
+    public IEntityLivingData finalizeMobSpawn(DifficultyInstance difficulty, @Nullable IEntityLivingData livingData, boolean forgeCheck) {
+        IEntityLivingData data = super.finalizeMobSpawn(difficulty, livingData, forgeCheck);
+        syncCareerId();
+        return data;
+    }
+
+    // Only actual changes are sent to clients.
+    private void syncCareerId() {
+        if (!world.isRemote) set(CAREER_ID, VANILLA_CAREER_ID.get(this));
     }
 
     private void setSizeForAge() {
@@ -510,6 +657,10 @@ public class EntityVillagerMCA extends EntityVillager {
         }
     }
 
+    public EnumAILevel getAILevel() {
+        return aiLevel;
+    }
+
     public BlockPos getWorkplace() {
         return get(WORKPLACE_POS);
     }
@@ -712,7 +863,6 @@ public class EntityVillagerMCA extends EntityVillager {
                 set(VILLAGER_NAME, API.getRandomName(EnumGender.byId(get(GENDER))));
                 break;
             case "gui.button.profession":
-                RegistryNamespaced<ResourceLocation, VillagerRegistry.VillagerProfession> registry = ObfuscationReflectionHelper.getPrivateValue(VillagerRegistry.class, VillagerRegistry.instance(), "REGISTRY");
                 setProfession(ProfessionsMCA.randomProfession());
                 setVanillaCareer(getProfessionForge().getRandomCareer(world.rand));
                 applySpecialAI();
@@ -776,15 +926,10 @@ public class EntityVillagerMCA extends EntityVillager {
     }
 
     private void onEachServerUpdate() {
-        if (this.ticksExisted % 20 == 0) { // Every second
-            onEachServerSecond();
-        }
-
-        if (this.ticksExisted % 200 == 0 && this.getHealth() > 0.0F) { // Every 10 seconds and when we're not already dead
-            if (this.getHealth() < this.getMaxHealth()) {
-                this.setHealth(this.getHealth() + 1.0F); // heal
-            }
-        }
+        babyJob.tick(this.ticksExisted);
+        healJob.tick(this.ticksExisted);
+        fatigueJob.tick(this.ticksExisted);
+        aiLevelJob.tick(this.ticksExisted);
 
         if (isChild()) {
             EnumAgeState current = EnumAgeState.byId(get(AGE_STATE));
@@ -795,12 +940,9 @@ public class EntityVillagerMCA extends EntityVillager {
         }
     }
 
-    private void onEachServerSecond() {
-        NBTTagCompound memories = get(PLAYER_HISTORY_MAP);
-        memories.getKeySet().forEach((key) -> PlayerHistory.fromNBT(this, UUID.fromString(key), memories.getCompoundTag(key)).update());
-
+    private void updateBaby(int seconds) {
         if (get(HAS_BABY)) {
-            set(BABY_AGE, get(BABY_AGE) + 1);
+            set(BABY_AGE, get(BABY_AGE) + seconds);
 
             if (get(BABY_AGE) >= MCA.getConfig().babyGrowUpTime * 60) { // grow up time is in minutes and we measure age in seconds
                 EntityVillagerMCA child = new EntityVillagerMCA(world, Optional.absent(), Optional.of(get(BABY_IS_MALE) ? EnumGender.MALE : EnumGender.FEMALE));
@@ -817,6 +959,21 @@ public class EntityVillagerMCA extends EntityVillager {
         }
     }
 
+    private void heal(int times) {
+        if (this.getHealth() > 0.0F && this.getHealth() < this.getMaxHealth()) { // when we're not already dead
+            this.setHealth(Math.min(this.getMaxHealth(), this.getHealth() + times));
+        }
+    }
+
+    private void updateAILevel(int seconds) {
+        EntityPlayer player = world.getClosestPlayerToEntity(this, MCA.getConfig().aiReducedDetailRange);
+        aiLevel = player == null ? EnumAILevel.SIMULATED : EnumAILevel.byDistanceSq(getDistanceSq(player));
+    }
+
+    private void decayInteractionFatigue(int times) {
+        playerHistory.values().forEach(h -> h.changeInteractionFatigue(-times));
+    }
+
     public ResourceLocation getTextureResourceLocation() {
         if (get(IS_INFECTED)) {
             return ResourceLocationCache.getResourceLocationFor(String.format("mca:skins/%s/zombievillager.png", get(GENDER) == EnumGender.MALE.getId() ? "male" : "female"));
@@ -828,11 +985,8 @@ public class EntityVillagerMCA extends EntityVillager {
     @Override
     protected void initEntityAI() {
         super.initEntityAI();
-        this.tasks.addTask(0, new EntityAIProspecting(this));
-        this.tasks.addTask(0, new EntityAIHunting(this));
-        this.tasks.addTask(0, new EntityAIChopping(this));
-        this.tasks.addTask(0, new EntityAIHarvesting(this));
-        this.tasks.addTask(0, new EntityAIFishing(this));
+        this.choresAI = new EntityAIChores(this);
+        this.tasks.addTask(0, choresAI);
         this.tasks.addTask(0, new EntityAIMoveState(this));
         this.tasks.addTask(0, new EntityAIAgeBaby(this));
         this.tasks.addTask(0, new EntityAIProcreate(this));
@@ -843,46 +997,23 @@ public class EntityVillagerMCA extends EntityVillager {
         this.tasks.addTask(10, new EntityAILookIdle(this));
     }
 
+    /**
+     * Builds the profession-specific AI, but only when the villager's profession maps to a different template than the
+     * one it was last built for. Reloading or re-applying the same profession leaves the existing tasks untouched.
+     */
     private void applySpecialAI() {
-        if (getProfessionForge() == ProfessionsMCA.bandit) {
-            this.tasks.taskEntries.clear();
-            this.tasks.addTask(1, new EntityAIAttackMelee(this, 0.8D, false));
-            this.tasks.addTask(2, new EntityAIMoveThroughVillage(this, 0.6D, false));
-
-            this.targetTasks.addTask(0, new EntityAINearestAttackableTarget<>(this, EntityVillagerMCA.class, 100, false, false, BANDIT_TARGET_SELECTOR));
-            this.targetTasks.addTask(1, new EntityAINearestAttackableTarget<>(this, EntityPlayer.class, true));
-        } else if (getProfessionForge() == ProfessionsMCA.guard) {
-            removeCertainTasks(EntityAIAvoidEntity.class);
-
-            this.tasks.addTask(1, new EntityAIAttackMelee(this, 0.8D, false));
-            this.tasks.addTask(2, new EntityAIMoveThroughVillage(this, 0.6D, false));
-
-            this.targetTasks.addTask(0, new EntityAINearestAttackableTarget<>(this, EntityVillagerMCA.class, 100, false, false, GUARD_TARGET_SELECTOR));
-            this.targetTasks.addTask(0, new EntityAINearestAttackableTarget<>(this, EntityZombie.class, 100, false, false, null));
-            this.targetTasks.addTask(0, new EntityAINearestAttackableTarget<>(this, EntityVex.class, 100, false, false, null));
-            this.targetTasks.addTask(0, new EntityAINearestAttackableTarget<>(this, EntityVindicator.class, 100, false, false, null));
-        } else {
-            //every other villager is allowed to defend itself from zombies while fleeing
-            this.tasks.addTask(0, new EntityAIDefendFromTarget(this));
-
-            this.targetTasks.taskEntries.clear();
-            this.targetTasks.addTask(0, new EntityAINearestAttackableTarget<>(this, EntityZombie.class, 100, false, false, null));
+        SpecialAITemplate template = SpecialAITemplate.forProfession(getProfessionForge());
+        if (template == specialAI) return;
+
+        if (specialAI != null) {
+            SpecialAITemplate.removeAll(this.tasks);
+            SpecialAITemplate.removeAll(this.targetTasks);
+            initEntityAI();
+            choresAI.onChoreChanged(activeChore);
         }
-    }
-
-    //guards should not run away from zombies
-    //TODO: should only avoid zombies when low on health
-    private void removeCertainTasks(Class typ) {
-        Iterator<EntityAITasks.EntityAITaskEntry> iterator = this.tasks.taskEntries.iterator();
 
-        while (iterator.hasNext()) {
-            EntityAITasks.EntityAITaskEntry entityaitasks$entityaitaskentry = iterator.next();
-            EntityAIBase entityaibase = entityaitasks$entityaitaskentry.action;
-
-            if (entityaibase.getClass().equals(typ)) {
-                iterator.remove();
-            }
-        }
+        template.applyTo(this);
+        specialAI = template;
     }
 
     public void spawnParticles(EnumParticleTypes particleType) {
@@ -894,10 +1025,22 @@ public class EntityVillagerMCA extends EntityVillager {
                 this.world.spawnParticle(particleType, this.posX + (double) (this.rand.nextFloat() * this.width * 2.0F) - (double) this.width, this.posY + 1.0D + (double) (this.rand.nextFloat() * this.height), this.posZ + (double) (this.rand.nextFloat() * this.width * 2.0F) - (double) this.width, d0, d1, d2);
             }
         } else {
-            NetMCA.INSTANCE.sendToAll(new NetMCA.SpawnParticles(this.getUniqueID(), particleType));
+            // Sent to tracking players at the end of the tick, together with any other bursts requested during it.
+            pendingParticles.merge(particleType, 1, Integer::sum);
+        }
+    }
+
+    private void sendPendingParticles() {
+        if (!pendingParticles.isEmpty()) {
+            NetMCA.INSTANCE.sendToAllTracking(new NetMCA.SpawnParticles(getEntityId(), new EnumMap<>(pendingParticles)), this);
+            pendingParticles.clear();
         }
     }
 
+    public EnumChore getActiveChore() {
+        return activeChore;
+    }
+
     public void stopChore() {
         set(ACTIVE_CHORE, EnumChore.NONE.getId());
         set(CHORE_ASSIGNING_PLAYER, Optional.of(Constants.ZERO_UUID));
@@ -929,9 +1072,8 @@ public class EntityVillagerMCA extends EntityVillager {
             return moveState.getFriendlyName();
         }
 
-        EnumChore chore = EnumChore.byId(get(ACTIVE_CHORE));
-        if (chore != EnumChore.NONE) {
-            return chore.getFriendlyName();
+        if (activeChore != EnumChore.NONE) {
+            return activeChore.getFriendlyName();
         }
 
         return null;
@@ -958,15 +1100,12 @@ public class EntityVillagerMCA extends EntityVillager {
 
     //searches for the nearest bed
     public BlockPos searchBed() {
-        List<BlockPos> nearbyBeds = Util.getNearbyBlocks(getPos(), world, BlockBed.class, 8, 8);
-        List<BlockPos> valid = new ArrayList<>();
-        for (BlockPos pos : nearbyBeds) {
-            IBlockState state = world.getBlockState(pos);
-            if (!(state.getValue(OCCUPIED)) && state.getValue(PART) != BlockBed.EnumPartType.HEAD) {
-                valid.add(pos);
-            }
-        }
-        return Util.getNearestPoint(getPos(), valid);
+        return PointOfInterestIndex.get(world).find(EnumPointOfInterest.BED, getPos(), 8, 8)
+                .filter(pos -> {
+                    IBlockState state = world.getBlockState(pos);
+                    return !(state.getValue(OCCUPIED)) && state.getValue(PART) != BlockBed.EnumPartType.HEAD;
+                })
+                .findFirst().orElse(null);
     }
 
     /**
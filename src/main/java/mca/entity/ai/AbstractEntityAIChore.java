@@ -4,29 +4,86 @@ import com.google.common.base.Optional;
 import mca.core.Constants;
 import mca.core.MCA;
 import mca.entity.EntityVillagerMCA;
+import mca.enums.EnumAILevel;
 import net.minecraft.entity.ai.EntityAIBase;
 import net.minecraft.entity.player.EntityPlayer;
 
+/**
+ * Base for the villager tasks that are scaled by the villager's AI level. At full detail the task is considered as
+ * often as the task list allows. At reduced detail it is considered once per evaluation interval of the level. When
+ * simulated it never starts, and simulate() is given the ticks that have passed since it was last considered instead.
+ */
 public abstract class AbstractEntityAIChore extends EntityAIBase {
     protected final EntityVillagerMCA villager;
 
+    private int lastEvaluation;
+    private int nextEvaluation;
+
     public AbstractEntityAIChore(EntityVillagerMCA entityIn) {
         this.villager = entityIn;
         this.setMutexBits(4);
+        // Spread out villagers whose tasks were created on the same tick
+        this.nextEvaluation = entityIn.getRNG().nextInt(EnumAILevel.REDUCED.getEvaluationInterval());
+    }
+
+    @Override
+    public final boolean shouldExecute() {
+        EnumAILevel level = villager.getAILevel();
+        int now = villager.ticksExisted;
+
+        if (level != EnumAILevel.FULL && now < nextEvaluation) return false;
+        int elapsed = Math.min(now - lastEvaluation, EnumAILevel.SIMULATED.getEvaluationInterval());
+        lastEvaluation = now;
+        nextEvaluation = now + level.getEvaluationInterval();
+
+        if (level != EnumAILevel.SIMULATED) return canExecute();
+        if (canExecute()) simulate(elapsed);
+        return false;
+    }
+
+    @Override
+    public boolean shouldContinueExecuting() {
+        return villager.getAILevel() != EnumAILevel.SIMULATED && canExecute();
+    }
+
+    /**
+     * Returns whether the task should start. Called in place of shouldExecute() at the rate allowed by the AI level.
+     * Chores are only asked by EntityAIChores while they are the villager's active chore, so most need no checks here.
+     */
+    protected boolean canExecute() {
+        return true;
+    }
+
+    /**
+     * Produces the results of the task without any pathing while the villager is far from all players.
+     *
+     * @param ticks Ticks passed since the task was last considered
+     */
+    protected void simulate(int ticks) {
     }
 
     @Override
     public void updateTask() {
         super.updateTask();
+        checkAssigningPlayer();
+    }
 
+    /**
+     * Stops the chore when the player who assigned it is gone.
+     *
+     * @return Whether the chore may go on
+     */
+    boolean checkAssigningPlayer() {
         if (!getAssigningPlayer().isPresent()) {
             MCA.getLog().warn("Force-stopped chore because assigning player was not present.");
             villager.stopChore();
+            return false;
         }
+        return true;
     }
 
     Optional<EntityPlayer> getAssigningPlayer() {
         EntityPlayer player = villager.world.getPlayerEntityByUUID(villager.get(EntityVillagerMCA.CHORE_ASSIGNING_PLAYER).or(Constants.ZERO_UUID));
         return Optional.fromNullable(player);
     }
-}
\ No newline at end of file
+}
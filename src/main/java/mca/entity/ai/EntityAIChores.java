@@ -0,0 +1,71 @@
+package mca.entity.ai;
+
+import mca.entity.EntityVillagerMCA;
+import mca.enums.EnumChore;
+import net.minecraft.entity.ai.EntityAIBase;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Runs the task of the villager's active chore. Villagers without a chore don't look any further than the chore
+ * cached by the villager, and villagers with one only ever evaluate that chore's task.
+ */
+public class EntityAIChores extends EntityAIBase {
+    private final EntityVillagerMCA villager;
+    private final Map<EnumChore, AbstractEntityAIChore> chores = new EnumMap<>(EnumChore.class);
+    private EnumChore currentChore = EnumChore.NONE;
+    private AbstractEntityAIChore current;
+
+    public EntityAIChores(EntityVillagerMCA villager) {
+        this.villager = villager;
+        chores.put(EnumChore.PROSPECT, new EntityAIProspecting(villager));
+        chores.put(EnumChore.HUNT, new EntityAIHunting(villager));
+        chores.put(EnumChore.CHOP, new EntityAIChopping(villager));
+        chores.put(EnumChore.HARVEST, new EntityAIHarvesting(villager));
+        chores.put(EnumChore.FISH, new EntityAIFishing(villager));
+    }
+
+    public boolean shouldExecute() {
+        EnumChore chore = villager.getActiveChore();
+        if (chore == EnumChore.NONE || stopIfHurt()) return false;
+
+        currentChore = chore;
+        current = chores.get(chore);
+        return current.shouldExecute();
+    }
+
+    /**
+     * Takes on the mutex bits of the given chore's task. The task list checks them before it asks shouldExecute(), so
+     * the villager calls this as soon as its active chore changes.
+     */
+    public void onChoreChanged(EnumChore chore) {
+        AbstractEntityAIChore task = chores.get(chore);
+        setMutexBits(task == null ? 0 : task.getMutexBits());
+    }
+
+    public boolean shouldContinueExecuting() {
+        return villager.getActiveChore() == currentChore && !stopIfHurt() && current.shouldContinueExecuting();
+    }
+
+    public void startExecuting() {
+        current.startExecuting();
+    }
+
+    public void updateTask() {
+        current.updateTask();
+    }
+
+    public void resetTask() {
+        current.resetTask();
+    }
+
+    // chores are stopped as soon as the villager gets hurt
+    private boolean stopIfHurt() {
+        if (villager.getHealth() < villager.getMaxHealth()) {
+            villager.stopChore();
+            return true;
+        }
+        return false;
+    }
+}
@@ -1,10 +1,8 @@
 package mca.entity.ai;
 
+import mca.core.minecraft.PointOfInterestIndex;
 import mca.entity.EntityVillagerMCA;
-import mca.enums.EnumChore;
-import mca.util.Util;
-import net.minecraft.block.BlockStaticLiquid;
-import net.minecraft.init.Blocks;
+import mca.enums.EnumPointOfInterest;
 import net.minecraft.init.Items;
 import net.minecraft.item.ItemFishFood;
 import net.minecraft.item.ItemFishingRod;
@@ -12,9 +10,6 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.math.BlockPos;
 
-import java.util.Comparator;
-import java.util.List;
-
 public class EntityAIFishing extends AbstractEntityAIChore {
     private BlockPos targetWater;
     private boolean hasCastRod;
@@ -25,13 +20,6 @@ public class EntityAIFishing extends AbstractEntityAIChore {
         this.setMutexBits(1);
     }
 
-    public boolean shouldExecute() {
-        if (villager.getHealth() < villager.getMaxHealth()) {
-            villager.stopChore();
-        }
-        return EnumChore.byId(villager.get(EntityVillagerMCA.ACTIVE_CHORE)) == EnumChore.FISH;
-    }
-
     public void updateTask() {
         super.updateTask();
 
@@ -42,10 +30,7 @@ public class EntityAIFishing extends AbstractEntityAIChore {
         }
 
         if (targetWater == null) {
-            List<BlockPos> nearbyStaticLiquid = Util.getNearbyBlocks(villager.getPos(), villager.world, BlockStaticLiquid.class, 12, 3);
-            targetWater = nearbyStaticLiquid.stream()
-                    .filter((p) -> villager.world.getBlockState(p).getBlock() == Blocks.WATER)
-                    .min(Comparator.comparingDouble(villager::getDistanceSq)).orElse(null);
+            targetWater = PointOfInterestIndex.get(villager.world).findNearest(EnumPointOfInterest.WATER, villager.getPos(), 12, 3).orElse(null);
         } else if (villager.getDistanceSq(targetWater) > 5.0D) villager.getNavigator().setPath(villager.getNavigator().getPathToPos(targetWater), 0.8D);
         else if (villager.getDistanceSq(targetWater) < 5.0D) {
             villager.getNavigator().clearPath();
@@ -58,17 +43,34 @@ public class EntityAIFishing extends AbstractEntityAIChore {
             ticks++;
 
             if (ticks >= villager.world.rand.nextInt(200) + 200) {
-                if (villager.world.rand.nextFloat() >= 0.35F) {
-                    int typesSize = ItemFishFood.FishType.values().length;
-                    ItemFishFood.FishType type = ItemFishFood.FishType.values()[villager.world.rand.nextInt(typesSize)];
-                    ItemStack stack = new ItemStack(Items.FISH, 1, type.getMetadata());
-
-                    villager.swingArm(EnumHand.MAIN_HAND);
-                    villager.inventory.addItem(stack);
-                    villager.getHeldItem(EnumHand.MAIN_HAND).damageItem(2, villager);
-                }
+                tryCatch();
                 ticks = 0;
             }
         }
     }
+
+    @Override
+    protected void simulate(int ticks) {
+        if (!checkAssigningPlayer() || !villager.inventory.contains(ItemFishingRod.class)) return;
+        if (!PointOfInterestIndex.get(villager.world).findNearest(EnumPointOfInterest.WATER, villager.getPos(), 12, 3).isPresent()) return;
+
+        // one catch is attempted every 300 ticks on average
+        this.ticks += ticks;
+        while (this.ticks >= 300) {
+            tryCatch();
+            this.ticks -= 300;
+        }
+    }
+
+    private void tryCatch() {
+        if (villager.world.rand.nextFloat() >= 0.35F) {
+            int typesSize = ItemFishFood.FishType.values().length;
+            ItemFishFood.FishType type = ItemFishFood.FishType.values()[villager.world.rand.nextInt(typesSize)];
+            ItemStack stack = new ItemStack(Items.FISH, 1, type.getMetadata());
+
+            villager.swingArm(EnumHand.MAIN_HAND);
+            villager.inventory.addItem(stack);
+            villager.getHeldItem(EnumHand.MAIN_HAND).damageItem(2, villager);
+        }
+    }
 }
\ No newline at end of file
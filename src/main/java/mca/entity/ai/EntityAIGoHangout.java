@@ -11,13 +11,13 @@ public class EntityAIGoHangout extends AbstractEntityAIChore {
         this.setMutexBits(1);
     }
 
-    public boolean shouldExecute() {
+    protected boolean canExecute() {
         if (villager.getHangout().getY() == 0) {
             return false; //no workplace
         }
 
         //no time, has to work
-        if (EnumChore.byId(villager.get(EntityVillagerMCA.ACTIVE_CHORE)) != EnumChore.NONE) {
+        if (villager.getActiveChore() != EnumChore.NONE) {
             return false;
         }
 
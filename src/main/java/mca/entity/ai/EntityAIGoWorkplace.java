@@ -10,7 +10,7 @@ public class EntityAIGoWorkplace extends AbstractEntityAIChore {
         this.setMutexBits(1);
     }
 
-    public boolean shouldExecute() {
+    protected boolean canExecute() {
         if (villager.getWorkplace().getY() == 0 || villager.world.isRaining()) {
             return false; //no workplace or it is raining
         }
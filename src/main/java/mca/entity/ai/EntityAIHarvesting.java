@@ -1,9 +1,8 @@
 package mca.entity.ai;
 
 import mca.core.MCA;
+import mca.core.minecraft.FarmPlots;
 import mca.entity.EntityVillagerMCA;
-import mca.enums.EnumChore;
-import mca.util.Util;
 import net.minecraft.block.BlockCrops;
 import net.minecraft.block.properties.IProperty;
 import net.minecraft.block.state.IBlockState;
@@ -12,42 +11,49 @@ import net.minecraft.util.EnumHand;
 import net.minecraft.util.NonNullList;
 import net.minecraft.util.math.BlockPos;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class EntityAIHarvesting extends AbstractEntityAIChore {
+    // Stands in for walking between crops while simulated
+    private static final int SIMULATED_WALK_TICKS = 40;
+
     private int blockWork = 0;
     private int lastCropScan = 0;
+    private int simulatedTicks = 0;
+    private BlockPos target;
 
     public EntityAIHarvesting(EntityVillagerMCA villagerIn) {
         super(villagerIn);
         this.setMutexBits(1);
     }
 
-    public boolean shouldExecute() {
-        if (villager.getHealth() < villager.getMaxHealth()) {
-            villager.stopChore();
-        }
-        return EnumChore.byId(villager.get(EntityVillagerMCA.ACTIVE_CHORE)) == EnumChore.HARVEST && (blockWork - villager.ticksExisted) < 0;
+    protected boolean canExecute() {
+        return (blockWork - villager.ticksExisted) < 0;
     }
 
     public boolean shouldContinueExecuting() {
         return !villager.getNavigator().noPath();
     }
 
-    private BlockPos searchCrop(int rangeX, int rangeY) {
-        List<BlockPos> nearbyCrops = Util.getNearbyBlocks(villager.getPos(), villager.world, BlockCrops.class, rangeX, rangeY);
-        List<BlockPos> harvestable = new ArrayList<>();
-        for (BlockPos pos : nearbyCrops) {
-            IBlockState state = villager.world.getBlockState(pos);
-            BlockCrops crop = (BlockCrops) state.getBlock();
+    private BlockPos claimCrop() {
+        FarmPlots plots = FarmPlots.get(villager.world);
 
-            if (crop.isMaxAge(state)) {
-                harvestable.add(pos);
-            }
+        //the plot around the workplace comes first
+        if (villager.getWorkplace().getY() > 0) {
+            BlockPos crop = plots.plotAt(villager.getWorkplace()).claimRipe();
+            if (crop != null) return crop;
+        }
+
+        //then any plot next to the villager
+        FarmPlots.FarmPlot plot = plots.discover(villager.getPos(), 16, 3);
+
+        //no crop next to villager -> long range scan
+        //limited to once a minute to reduce CPU usage
+        if (plot == null && villager.ticksExisted - lastCropScan > 1200) {
+            //MCA.getLog().info(villager.getName() + " scans for crops");
+            lastCropScan = villager.ticksExisted;
+            plot = plots.discover(villager.getPos(), 32, 16);
         }
 
-        return Util.getNearestPoint(villager.getPos(), harvestable);
+        return plot == null ? null : plot.claimRipe();
     }
 
     public void startExecuting() {
@@ -56,16 +62,8 @@ public class EntityAIHarvesting extends AbstractEntityAIChore {
             villager.stopChore();
         }
 
-        //search crop
-        BlockPos target = searchCrop(16, 3);
-
-        //no crop next to villager -> long range scan
-        //limited to once a minute to reduce CPU usage
-        if (target == null && villager.ticksExisted - lastCropScan > 1200) {
-            //MCA.getLog().info(villager.getName() + " scans for crops");
-            lastCropScan = villager.ticksExisted;
-            target = searchCrop(32, 16);
-        }
+        //keep the crop claimed earlier until it's harvested, otherwise claim the next ripe one
+        if (target == null || !isRipe(target)) target = claimCrop();
 
         if (target == null) {
             if (villager.getWorkplace().getY() > 0 && villager.getDistanceSq(villager.getWorkplace()) > 256.0D) {
@@ -85,33 +83,66 @@ public class EntityAIHarvesting extends AbstractEntityAIChore {
                     villager.attemptTeleport(target.getX(), target.getY(), target.getZ());
                 }
             } else {
-                //harvest
-                IBlockState state = villager.world.getBlockState(target);
-                if (state.getBlock() instanceof BlockCrops) {
-                    BlockCrops crop = (BlockCrops) state.getBlock();
-                    NonNullList<ItemStack> drops = NonNullList.create();
-                    crop.getDrops(drops, villager.world, target, state, 0);
-                    for (ItemStack stack : drops) {
-                        villager.inventory.addItem(stack);
-                    }
-
-                    villager.swingArm(EnumHand.MAIN_HAND);
-                    villager.getHeldItem(EnumHand.MAIN_HAND).damageItem(2, villager);
-
-                    try {
-                        IProperty<Integer> property = (IProperty<Integer>) crop.getBlockState().getProperty("age");
-                        villager.world.setBlockState(target, state.withProperty(property, 0));
-                    } catch (Exception e) { // age property may have some issues on certain mods, if it errors just set to air
-                        MCA.getLog().warn("Error resetting crop age at " + target.toString() + "! Setting to air.");
-                        villager.world.setBlockToAir(target);
-                    }
-                }
+                harvest(target);
+                target = null;
 
                 //wait before harvesting next crop
-                ItemStack hoeStack = villager.inventory.getBestItemOfType(ItemHoe.class);
-                float efficiency = hoeStack == ItemStack.EMPTY ? 0.0f : Item.ToolMaterial.valueOf(((ItemHoe) hoeStack.getItem()).getMaterialName()).getEfficiency();
-                blockWork = villager.ticksExisted + (int) Math.max(2.0f, 60.0f - efficiency * 5.0f);
+                blockWork = villager.ticksExisted + harvestDelay();
             }
         }
     }
+
+    @Override
+    protected void simulate(int ticks) {
+        if (!checkAssigningPlayer() || !villager.inventory.contains(ItemHoe.class)) return;
+
+        simulatedTicks += ticks;
+        int cost = harvestDelay() + SIMULATED_WALK_TICKS;
+        while (simulatedTicks >= cost) {
+            if (target == null || !isRipe(target)) target = claimCrop();
+            if (target == null) {
+                simulatedTicks = 0;
+                blockWork = villager.ticksExisted + 100 + villager.getRNG().nextInt(100);
+                return;
+            }
+
+            harvest(target);
+            target = null;
+            simulatedTicks -= cost;
+        }
+    }
+
+    private void harvest(BlockPos target) {
+        IBlockState state = villager.world.getBlockState(target);
+        if (state.getBlock() instanceof BlockCrops) {
+            BlockCrops crop = (BlockCrops) state.getBlock();
+            NonNullList<ItemStack> drops = NonNullList.create();
+            crop.getDrops(drops, villager.world, target, state, 0);
+            for (ItemStack stack : drops) {
+                villager.inventory.addItem(stack);
+            }
+
+            villager.swingArm(EnumHand.MAIN_HAND);
+            villager.getHeldItem(EnumHand.MAIN_HAND).damageItem(2, villager);
+
+            try {
+                IProperty<Integer> property = (IProperty<Integer>) crop.getBlockState().getProperty("age");
+                villager.world.setBlockState(target, state.withProperty(property, 0));
+            } catch (Exception e) { // age property may have some issues on certain mods, if it errors just set to air
+                MCA.getLog().warn("Error resetting crop age at " + target.toString() + "! Setting to air.");
+                villager.world.setBlockToAir(target);
+            }
+        }
+    }
+
+    private boolean isRipe(BlockPos pos) {
+        IBlockState state = villager.world.getBlockState(pos);
+        return state.getBlock() instanceof BlockCrops && ((BlockCrops) state.getBlock()).isMaxAge(state);
+    }
+
+    private int harvestDelay() {
+        ItemStack hoeStack = villager.inventory.getBestItemOfType(ItemHoe.class);
+        float efficiency = hoeStack == ItemStack.EMPTY ? 0.0f : Item.ToolMaterial.valueOf(((ItemHoe) hoeStack.getItem()).getMaterialName()).getEfficiency();
+        return (int) Math.max(2.0f, 60.0f - efficiency * 5.0f);
+    }
 }
\ No newline at end of file
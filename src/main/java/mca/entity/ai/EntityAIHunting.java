@@ -1,13 +1,13 @@
 package mca.entity.ai;
 
 import mca.entity.EntityVillagerMCA;
-import mca.enums.EnumChore;
 import net.minecraft.entity.item.EntityItem;
 import net.minecraft.entity.passive.EntityAnimal;
 import net.minecraft.entity.passive.EntityTameable;
 import net.minecraft.item.ItemSword;
 import net.minecraft.util.DamageSource;
 import net.minecraft.util.EnumHand;
+import net.minecraft.util.math.MathHelper;
 
 import java.util.Comparator;
 import java.util.Optional;
@@ -22,13 +22,6 @@ public class EntityAIHunting extends AbstractEntityAIChore {
         this.setMutexBits(1);
     }
 
-    public boolean shouldExecute() {
-        if (villager.getHealth() < villager.getMaxHealth()) {
-            villager.stopChore();
-        }
-        return EnumChore.byId(villager.get(EntityVillagerMCA.ACTIVE_CHORE)) == EnumChore.HUNT;
-    }
-
     public void updateTask() {
         super.updateTask();
 
@@ -43,9 +36,7 @@ public class EntityAIHunting extends AbstractEntityAIChore {
             if (ticks >= nextAction) {
                 ticks = 0;
                 if (villager.world.rand.nextFloat() >= 0.0D) {
-                    Optional<EntityAnimal> animal = villager.world.getEntitiesWithinAABB(EntityAnimal.class, villager.getEntityBoundingBox().grow(15.0D, 3.0D, 15.0D)).stream()
-                            .filter((a) -> !(a instanceof EntityTameable))
-                            .min(Comparator.comparingDouble(villager::getDistance));
+                    Optional<EntityAnimal> animal = findPrey();
 
                     if (animal.isPresent()) {
                         target = animal.get();
@@ -75,4 +66,37 @@ public class EntityAIHunting extends AbstractEntityAIChore {
             }
         }
     }
+
+    @Override
+    protected void simulate(int ticks) {
+        if (!checkAssigningPlayer() || !villager.inventory.contains(ItemSword.class)) return;
+
+        // one animal is hunted every 300 ticks, killed in as many hits as it would take in person
+        this.ticks += ticks;
+        while (this.ticks >= 300) {
+            this.ticks -= 300;
+
+            Optional<EntityAnimal> animal = findPrey();
+            if (!animal.isPresent()) continue;
+
+            EntityAnimal prey = animal.get();
+            int hits = MathHelper.ceil(prey.getHealth() / 6.0F);
+            villager.swingArm(EnumHand.MAIN_HAND);
+            prey.attackEntityFrom(DamageSource.causeMobDamage(villager), hits * 6.0F);
+            villager.getHeldItem(EnumHand.MAIN_HAND).damageItem(hits * 2, villager);
+
+            if (prey.isDead || prey.getHealth() <= 0.0F) {
+                villager.world.getEntitiesWithinAABB(EntityItem.class, prey.getEntityBoundingBox().grow(5.0D)).forEach((item) -> {
+                    villager.inventory.addItem(item.getItem());
+                    item.setDead();
+                });
+            }
+        }
+    }
+
+    private Optional<EntityAnimal> findPrey() {
+        return villager.world.getEntitiesWithinAABB(EntityAnimal.class, villager.getEntityBoundingBox().grow(15.0D, 3.0D, 15.0D)).stream()
+                .filter((a) -> !(a instanceof EntityTameable))
+                .min(Comparator.comparingDouble(villager::getDistance));
+    }
 }
\ No newline at end of file
@@ -1,10 +1,9 @@
 package mca.entity.ai;
 
+import mca.core.minecraft.PointOfInterestIndex;
 import mca.entity.EntityVillagerMCA;
-import mca.enums.EnumChore;
-import mca.util.Util;
+import mca.enums.EnumPointOfInterest;
 import net.minecraft.block.Block;
-import net.minecraft.block.BlockOre;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemPickaxe;
 import net.minecraft.item.ItemStack;
@@ -18,13 +17,6 @@ public class EntityAIProspecting extends AbstractEntityAIChore {
         this.setMutexBits(4);
     }
 
-    public boolean shouldExecute() {
-        if (villager.getHealth() < villager.getMaxHealth()) {
-            villager.stopChore();
-        }
-        return EnumChore.byId(villager.get(EntityVillagerMCA.ACTIVE_CHORE)) == EnumChore.PROSPECT;
-    }
-
     public void updateTask() {
         super.updateTask();
 
@@ -35,20 +27,41 @@ public class EntityAIProspecting extends AbstractEntityAIChore {
             return;
         }
 
-        float efficiency = Item.ToolMaterial.valueOf(((ItemPickaxe) pickStack.getItem()).getToolMaterialName()).getEfficiency();
-        float notifyRate = Math.max(600 - efficiency * 50, 100);
-
-        if (ticks >= notifyRate) {
-            BlockPos closestOre = Util.getNearestPoint(villager.getPos(), Util.getNearbyBlocks(villager.getPos(), villager.world, BlockOre.class, 4, 3));
-
-            if (closestOre != null) {
-                Block block = villager.world.getBlockState(closestOre).getBlock();
-                villager.say(getAssigningPlayer(), "chore.mining.orenotify", block.getLocalizedName());
-                pickStack.damageItem(2, villager);
-            }
+        if (ticks >= notifyRate(pickStack)) {
+            prospect(pickStack);
             ticks = 0;
             return;
         }
         ticks++;
     }
+
+    @Override
+    protected void simulate(int ticks) {
+        if (!checkAssigningPlayer()) return;
+
+        ItemStack pickStack = villager.inventory.getBestItemOfType(ItemPickaxe.class);
+        if (pickStack == ItemStack.EMPTY) return;
+
+        // the villager doesn't move while prospecting, only the notifications have to keep their pace
+        this.ticks += ticks;
+        if (this.ticks >= notifyRate(pickStack)) {
+            prospect(pickStack);
+            this.ticks = 0;
+        }
+    }
+
+    private float notifyRate(ItemStack pickStack) {
+        float efficiency = Item.ToolMaterial.valueOf(((ItemPickaxe) pickStack.getItem()).getToolMaterialName()).getEfficiency();
+        return Math.max(600 - efficiency * 50, 100);
+    }
+
+    private void prospect(ItemStack pickStack) {
+        BlockPos closestOre = PointOfInterestIndex.get(villager.world).findNearest(EnumPointOfInterest.ORE, villager.getPos(), 4, 3).orElse(null);
+
+        if (closestOre != null) {
+            Block block = villager.world.getBlockState(closestOre).getBlock();
+            villager.say(getAssigningPlayer(), "chore.mining.orenotify", block.getLocalizedName());
+            pickStack.damageItem(2, villager);
+        }
+    }
 }
\ No newline at end of file
@@ -12,7 +12,7 @@ public class EntityAISleeping extends AbstractEntityAIChore {
         this.setMutexBits(1);
     }
 
-    public boolean shouldExecute() {
+    protected boolean canExecute() {
         //let the avoid tasks work
         if (villager.getHealth() < villager.getMaxHealth()) {
             return false;
@@ -56,7 +56,7 @@ public class EntityAISleeping extends AbstractEntityAIChore {
     }
 
     public boolean shouldContinueExecuting() {
-        return shouldExecute() && (!villager.getNavigator().noPath() || villager.isSleeping());
+        return canExecute() && (!villager.getNavigator().noPath() || villager.isSleeping());
     }
 
     public void startExecuting() {
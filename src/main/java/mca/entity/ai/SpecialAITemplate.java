@@ -0,0 +1,110 @@
+package mca.entity.ai;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import mca.core.minecraft.ProfessionsMCA;
+import mca.entity.EntityVillagerMCA;
+import net.minecraft.entity.ai.*;
+import net.minecraft.entity.monster.EntityVex;
+import net.minecraft.entity.monster.EntityVindicator;
+import net.minecraft.entity.monster.EntityZombie;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.fml.common.registry.VillagerRegistry;
+
+import java.util.ArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * SpecialAITemplate describes the profession-specific AI a villager runs on top of the tasks from initEntityAI().
+ * <p>
+ * Templates are immutable and shared by every villager. Only the task instances are per-villager, since vanilla AI
+ * tasks hold a reference to their owner, and those are created once each time a villager switches templates.
+ */
+public class SpecialAITemplate {
+    private static final Predicate<EntityVillagerMCA> BANDIT_TARGET_SELECTOR = (v) -> v.getProfessionForge() != ProfessionsMCA.bandit && v.getProfessionForge() != ProfessionsMCA.child;
+    private static final Predicate<EntityVillagerMCA> GUARD_TARGET_SELECTOR = (v) -> v.getProfessionForge() == ProfessionsMCA.bandit;
+
+    public static final SpecialAITemplate BANDIT = new SpecialAITemplate(true, false, null,
+            ImmutableList.of(
+                    new Task(1, v -> new EntityAIAttackMelee(v, 0.8D, false)),
+                    new Task(2, v -> new EntityAIMoveThroughVillage(v, 0.6D, false))),
+            ImmutableList.of(
+                    new Task(0, v -> new EntityAINearestAttackableTarget<>(v, EntityVillagerMCA.class, 100, false, false, BANDIT_TARGET_SELECTOR)),
+                    new Task(1, v -> new EntityAINearestAttackableTarget<>(v, EntityPlayer.class, true))));
+
+    //guards should not run away from zombies
+    //TODO: should only avoid zombies when low on health
+    public static final SpecialAITemplate GUARD = new SpecialAITemplate(false, false, EntityAIAvoidEntity.class,
+            ImmutableList.of(
+                    new Task(1, v -> new EntityAIAttackMelee(v, 0.8D, false)),
+                    new Task(2, v -> new EntityAIMoveThroughVillage(v, 0.6D, false))),
+            ImmutableList.of(
+                    new Task(0, v -> new EntityAINearestAttackableTarget<>(v, EntityVillagerMCA.class, 100, false, false, GUARD_TARGET_SELECTOR)),
+                    new Task(0, v -> new EntityAINearestAttackableTarget<>(v, EntityZombie.class, 100, false, false, null)),
+                    new Task(0, v -> new EntityAINearestAttackableTarget<>(v, EntityVex.class, 100, false, false, null)),
+                    new Task(0, v -> new EntityAINearestAttackableTarget<>(v, EntityVindicator.class, 100, false, false, null))));
+
+    //every other villager is allowed to defend itself from zombies while fleeing
+    public static final SpecialAITemplate CIVILIAN = new SpecialAITemplate(false, true, null,
+            ImmutableList.of(
+                    new Task(0, EntityAIDefendFromTarget::new)),
+            ImmutableList.of(
+                    new Task(0, v -> new EntityAINearestAttackableTarget<>(v, EntityZombie.class, 100, false, false, null))));
+
+    private final boolean clearTasks;
+    private final boolean clearTargetTasks;
+    private final Class<? extends EntityAIBase> removedTask;
+    private final ImmutableList<Task> tasks;
+    private final ImmutableList<Task> targetTasks;
+
+    private SpecialAITemplate(boolean clearTasks, boolean clearTargetTasks, Class<? extends EntityAIBase> removedTask, ImmutableList<Task> tasks, ImmutableList<Task> targetTasks) {
+        this.clearTasks = clearTasks;
+        this.clearTargetTasks = clearTargetTasks;
+        this.removedTask = removedTask;
+        this.tasks = tasks;
+        this.targetTasks = targetTasks;
+    }
+
+    public static SpecialAITemplate forProfession(VillagerRegistry.VillagerProfession profession) {
+        if (profession == ProfessionsMCA.bandit) return BANDIT;
+        if (profession == ProfessionsMCA.guard) return GUARD;
+        return CIVILIAN;
+    }
+
+    /**
+     * Adds this template's tasks to a villager whose task lists hold exactly what initEntityAI() created.
+     */
+    public void applyTo(EntityVillagerMCA villager) {
+        if (clearTasks) removeAll(villager.tasks);
+        if (clearTargetTasks) removeAll(villager.targetTasks);
+        if (removedTask != null) {
+            villager.tasks.taskEntries.stream()
+                    .map(e -> e.action)
+                    .filter(action -> action.getClass().equals(removedTask))
+                    .collect(Collectors.toList())
+                    .forEach(villager.tasks::removeTask);
+        }
+
+        for (Task task : tasks) villager.tasks.addTask(task.priority, task.factory.apply(villager));
+        for (Task task : targetTasks) villager.targetTasks.addTask(task.priority, task.factory.apply(villager));
+    }
+
+    /**
+     * Removes every task from the list. Unlike clearing its entries, this also resets the tasks that are running, so
+     * they neither keep updating nor hold on to their mutex bits.
+     */
+    public static void removeAll(EntityAITasks tasks) {
+        new ArrayList<>(tasks.taskEntries).forEach(e -> tasks.removeTask(e.action));
+    }
+
+    private static class Task {
+        final int priority;
+        final Function<EntityVillagerMCA, EntityAIBase> factory;
+
+        Task(int priority, Function<EntityVillagerMCA, EntityAIBase> factory) {
+            this.priority = priority;
+            this.factory = factory;
+        }
+    }
+}
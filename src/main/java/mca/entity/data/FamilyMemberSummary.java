@@ -0,0 +1,76 @@
+package mca.entity.data;
+
+import lombok.Getter;
+import mca.entity.EntityVillagerMCA;
+import net.minecraft.nbt.NBTTagCompound;
+
+import java.util.UUID;
+
+import static mca.entity.EntityVillagerMCA.*;
+
+/**
+ * FamilyMemberSummary holds what the whistle needs to list and preview one of a player's family members.
+ */
+@Getter
+public class FamilyMemberSummary {
+    private UUID uuid;
+    private String name;
+    private String texture;
+    private int gender;
+    private int ageState;
+    private float girth;
+    private float tallness;
+    private boolean infected;
+
+    public static FamilyMemberSummary fromVillager(EntityVillagerMCA villager) {
+        FamilyMemberSummary summary = new FamilyMemberSummary();
+        summary.uuid = villager.getUniqueID();
+        summary.name = villager.get(VILLAGER_NAME);
+        summary.texture = villager.get(TEXTURE);
+        summary.gender = villager.get(GENDER);
+        summary.ageState = villager.get(AGE_STATE);
+        summary.girth = villager.get(GIRTH);
+        summary.tallness = villager.get(TALLNESS);
+        summary.infected = villager.get(IS_INFECTED);
+        return summary;
+    }
+
+    public static FamilyMemberSummary fromNBT(NBTTagCompound nbt) {
+        FamilyMemberSummary summary = new FamilyMemberSummary();
+        summary.uuid = nbt.getUniqueId("uuid");
+        summary.name = nbt.getString("name");
+        summary.texture = nbt.getString("texture");
+        summary.gender = nbt.getInteger("gender");
+        summary.ageState = nbt.getInteger("ageState");
+        summary.girth = nbt.getFloat("girth");
+        summary.tallness = nbt.getFloat("tallness");
+        summary.infected = nbt.getBoolean("infected");
+        return summary;
+    }
+
+    public NBTTagCompound toNBT() {
+        NBTTagCompound nbt = new NBTTagCompound();
+        nbt.setUniqueId("uuid", uuid);
+        nbt.setString("name", name);
+        nbt.setString("texture", texture);
+        nbt.setInteger("gender", gender);
+        nbt.setInteger("ageState", ageState);
+        nbt.setFloat("girth", girth);
+        nbt.setFloat("tallness", tallness);
+        nbt.setBoolean("infected", infected);
+        return nbt;
+    }
+
+    /**
+     * Makes the provided villager look like the summarized one. Used for the whistle's preview.
+     */
+    public void applyTo(EntityVillagerMCA villager) {
+        villager.set(VILLAGER_NAME, name);
+        villager.set(TEXTURE, texture);
+        villager.set(GENDER, gender);
+        villager.set(AGE_STATE, ageState);
+        villager.set(GIRTH, girth);
+        villager.set(TALLNESS, tallness);
+        villager.set(IS_INFECTED, infected);
+    }
+}
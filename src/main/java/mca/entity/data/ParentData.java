@@ -3,6 +3,7 @@ package mca.entity.data;
 import lombok.Getter;
 import mca.core.Constants;
 import mca.entity.EntityVillagerMCA;
+import mca.util.Util;
 import net.minecraft.entity.Entity;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.world.World;
@@ -63,7 +64,7 @@ public class ParentData {
     }
 
     public Entity getParentEntity(World world, UUID uuid) {
-        return world.loadedEntityList.stream().filter(e -> e.getUniqueID().equals(uuid)).findFirst().orElse(null);  // TODO: This should definitely be changed to an optional
+        return Util.getEntityByUUID(world, uuid).orNull();  // TODO: This should definitely be changed to an optional
     }
 
     public Entity[] getParentEntities(World world) {
@@ -41,8 +41,16 @@ public class PlayerHistory {
     }
 
     public static PlayerHistory fromNBT(EntityVillagerMCA villager, UUID uuid, NBTTagCompound nbt) {
+        PlayerHistory history = fromNBT(uuid, nbt);
+        history.attachTo(villager);
+        return history;
+    }
+
+    /**
+     * Reads a history entry that does not belong to a villager yet. It must be attached to one before it's changed.
+     */
+    public static PlayerHistory fromNBT(UUID uuid, NBTTagCompound nbt) {
         PlayerHistory history = new PlayerHistory();
-        history.villager = villager;
         history.playerUUID = uuid;
 
         history.hearts = nbt.getInteger("hearts");
@@ -54,6 +62,10 @@ public class PlayerHistory {
         return history;
     }
 
+    public void attachTo(EntityVillagerMCA villager) {
+        this.villager = villager;
+    }
+
     public NBTTagCompound toNBT() {
         NBTTagCompound nbt = new NBTTagCompound();
 
@@ -81,11 +93,6 @@ public class PlayerHistory {
         villager.updatePlayerHistoryMap(this);
     }
 
-    public void update() {
-        // every 5 minutes reduce interaction fatigues
-        if (villager.ticksExisted % 6000 == 0) changeInteractionFatigue(-1);
-    }
-
     public void setDialogueType(EnumDialogueType type) {
         this.dialogueType = type;
         villager.updatePlayerHistoryMap(this);
@@ -1,5 +1,6 @@
 package mca.entity.data;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import mca.core.Constants;
 import mca.core.MCA;
@@ -8,7 +9,6 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.text.TextComponentString;
 import net.minecraft.world.World;
-import net.minecraft.world.storage.WorldSavedData;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
@@ -17,36 +17,33 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+/**
+ * PlayerSaveData holds MCA's marriage and family state for one player. Instances live in the {@link PlayerSaveDataStore}.
+ */
 @Getter
-public class PlayerSaveData extends WorldSavedData {
-    private static final String PREFIX = "MCA-Player-V1-";
+public class PlayerSaveData {
+    @Getter(AccessLevel.NONE)
+    private final PlayerSaveDataStore store;
+    private final UUID uuid;
 
     private UUID spouseUUID = Constants.ZERO_UUID;
     private EnumMarriageState marriageState = EnumMarriageState.NOT_MARRIED;
     private String spouseName = "";
     private boolean babyPresent = false;
 
-    public PlayerSaveData(String id) {
-        super(id);
+    PlayerSaveData(PlayerSaveDataStore store, UUID uuid) {
+        this.store = store;
+        this.uuid = uuid;
     }
 
     public static PlayerSaveData get(EntityPlayer player) {
-        String dataId = PREFIX + player.getUniqueID().toString();
-        PlayerSaveData data = (PlayerSaveData) player.world.loadData(PlayerSaveData.class, dataId);
-
-        if (data == null) {
-            data = new PlayerSaveData(dataId);
-            player.world.setData(dataId, data);
-        }
-
-        return data;
+        return PlayerSaveDataStore.get(player.world).getOrCreate(player.getUniqueID());
     }
 
     public static PlayerSaveData getExisting(World world, UUID uuid) {
-        return (PlayerSaveData) world.loadData(PlayerSaveData.class, PREFIX + uuid.toString());
+        return PlayerSaveDataStore.get(world).getExisting(uuid);
     }
 
-    @Override
     public NBTTagCompound writeToNBT(NBTTagCompound nbt) {
         nbt.setUniqueId("spouseUUID", spouseUUID);
         nbt.setInteger("marriageState", marriageState.getId());
@@ -55,7 +52,6 @@ public class PlayerSaveData extends WorldSavedData {
         return nbt;
     }
 
-    @Override
     public void readFromNBT(NBTTagCompound nbt) {
         spouseUUID = nbt.getUniqueId("spouseUUID");
         marriageState = EnumMarriageState.byId(nbt.getInteger("marriageState"));
@@ -63,6 +59,10 @@ public class PlayerSaveData extends WorldSavedData {
         babyPresent = nbt.getBoolean("babyPresent");
     }
 
+    public void markDirty() {
+        store.markDirty(uuid);
+    }
+
     public boolean isMarriedOrEngaged() {
         return marriageState != EnumMarriageState.NOT_MARRIED;
     }
@@ -0,0 +1,184 @@
+package mca.entity.data;
+
+import mca.core.MCA;
+import mca.util.BackgroundIO;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.World;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PlayerSaveDataStore keeps every player's {@link PlayerSaveData} in memory and in a single file, data/mca/players.dat.
+ * <p>
+ * Lookups never touch the disk. Changed entries are marked dirty and written out together when the world saves: their
+ * NBT is taken on the server thread into a fresh copy of the last written snapshot, and that snapshot is written to
+ * disk on the background IO thread.
+ */
+public class PlayerSaveDataStore {
+    private static final String LEGACY_PREFIX = "MCA-Player-V1-";
+    private static volatile PlayerSaveDataStore instance;
+
+    private final File file;
+    private final Map<UUID, PlayerSaveData> players = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    // The NBT last handed to the IO thread. Never modified once handed over; each flush builds a new map.
+    private Map<UUID, NBTTagCompound> snapshot = Collections.emptyMap();
+
+    private PlayerSaveDataStore(File file) {
+        this.file = file;
+    }
+
+    public static PlayerSaveDataStore get(World world) {
+        PlayerSaveDataStore store = instance;
+        return store != null ? store : open(world);
+    }
+
+    private static synchronized PlayerSaveDataStore open(World world) {
+        if (instance == null) {
+            File dataDirectory = new File(world.getSaveHandler().getWorldDirectory(), "data");
+            PlayerSaveDataStore store = new PlayerSaveDataStore(new File(dataDirectory, "mca/players.dat"));
+            store.load();
+            store.migrate(dataDirectory);
+            instance = store;
+        }
+        return instance;
+    }
+
+    /**
+     * Queues a write of any changed player data, if the store is open. Called whenever the overworld saves.
+     */
+    public static void save() {
+        PlayerSaveDataStore store = instance;
+        if (store != null) store.flush();
+    }
+
+    /**
+     * Writes out any changed player data and releases the store. Called when the server stops.
+     */
+    public static synchronized void close() {
+        if (instance == null) return;
+        instance.flush();
+        instance = null;
+        BackgroundIO.flush();
+    }
+
+    /**
+     * Returns the player's data, creating it if the player has none yet.
+     */
+    public PlayerSaveData getOrCreate(UUID uuid) {
+        return players.computeIfAbsent(uuid, k -> new PlayerSaveData(this, k));
+    }
+
+    /**
+     * Returns the player's data, or null if the player has none.
+     */
+    public PlayerSaveData getExisting(UUID uuid) {
+        return players.get(uuid);
+    }
+
+    /**
+     * Returns the data of every player known to the store.
+     */
+    public Collection<PlayerSaveData> getAll() {
+        return Collections.unmodifiableCollection(players.values());
+    }
+
+    void markDirty(UUID uuid) {
+        dirty.add(uuid);
+    }
+
+    /**
+     * Queues a write of the whole store if any player's data changed since the last one.
+     */
+    public void flush() {
+        Map<UUID, NBTTagCompound> data = takeSnapshot();
+        if (data != null) BackgroundIO.execute(() -> write(data));
+    }
+
+    private synchronized Map<UUID, NBTTagCompound> takeSnapshot() {
+        if (dirty.isEmpty()) return null;
+
+        Map<UUID, NBTTagCompound> next = new HashMap<>(snapshot);
+        for (Iterator<UUID> it = dirty.iterator(); it.hasNext(); ) {
+            UUID uuid = it.next();
+            it.remove();
+            next.put(uuid, players.get(uuid).writeToNBT(new NBTTagCompound()));
+        }
+        snapshot = Collections.unmodifiableMap(next);
+        return snapshot;
+    }
+
+    private void write(Map<UUID, NBTTagCompound> data) throws IOException {
+        NBTTagCompound players = new NBTTagCompound();
+        data.forEach((uuid, nbt) -> players.setTag(uuid.toString(), nbt));
+        NBTTagCompound root = new NBTTagCompound();
+        root.setTag("players", players);
+
+        if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+            throw new IOException("Could not create " + file.getParentFile());
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            CompressedStreamTools.writeCompressed(root, out);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void load() {
+        if (!file.isFile()) return;
+
+        Map<UUID, NBTTagCompound> loaded = new HashMap<>();
+        try (FileInputStream in = new FileInputStream(file)) {
+            NBTTagCompound players = CompressedStreamTools.readCompressed(in).getCompoundTag("players");
+            for (String key : players.getKeySet()) {
+                UUID uuid = UUID.fromString(key);
+                NBTTagCompound nbt = players.getCompoundTag(key);
+                getOrCreate(uuid).readFromNBT(nbt);
+                loaded.put(uuid, nbt);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            MCA.getLog().error("Failed to load MCA player data from " + file, e);
+        }
+        snapshot = Collections.unmodifiableMap(loaded);
+    }
+
+    /**
+     * Moves over the per-player files of the old format, keeping them as .migrated once the store has been written.
+     */
+    private void migrate(File dataDirectory) {
+        File[] legacyFiles = dataDirectory.listFiles((dir, name) -> name.startsWith(LEGACY_PREFIX) && name.endsWith(".dat"));
+        if (legacyFiles == null || legacyFiles.length == 0) return;
+
+        List<File> migrated = new ArrayList<>();
+        for (File legacyFile : legacyFiles) {
+            String name = legacyFile.getName();
+            try (FileInputStream in = new FileInputStream(legacyFile)) {
+                UUID uuid = UUID.fromString(name.substring(LEGACY_PREFIX.length(), name.length() - ".dat".length()));
+                getOrCreate(uuid).readFromNBT(CompressedStreamTools.readCompressed(in).getCompoundTag("data"));
+                markDirty(uuid);
+                migrated.add(legacyFile);
+            } catch (IOException | IllegalArgumentException e) {
+                MCA.getLog().error("Failed to migrate MCA player data from " + legacyFile, e);
+            }
+        }
+
+        Map<UUID, NBTTagCompound> data = takeSnapshot();
+        BackgroundIO.execute(() -> {
+            if (data != null) write(data);
+            for (File legacyFile : migrated) {
+                if (!legacyFile.renameTo(new File(legacyFile.getPath() + ".migrated"))) {
+                    MCA.getLog().warn("Could not rename " + legacyFile + " after migrating player data");
+                }
+            }
+        });
+        MCA.getLog().info("Migrated data of " + migrated.size() + " players to " + file);
+    }
+}
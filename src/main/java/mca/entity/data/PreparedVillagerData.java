@@ -0,0 +1,32 @@
+package mca.entity.data;
+
+import lombok.Getter;
+import net.minecraft.nbt.NBTTagCompound;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * PreparedVillagerData is the part of a villager's saved NBT that can be decoded without the entity or the world, so
+ * that it can be done ahead of time on the chunk I/O thread.
+ */
+@Getter
+public class PreparedVillagerData {
+    private VillagerRecord record;
+    // Not yet attached to a villager.
+    private Map<UUID, PlayerHistory> playerHistory;
+
+    public static PreparedVillagerData fromNBT(NBTTagCompound nbt) {
+        PreparedVillagerData data = new PreparedVillagerData();
+        data.record = VillagerRecord.fromNBT(nbt);
+        data.playerHistory = new HashMap<>();
+
+        NBTTagCompound history = nbt.getCompoundTag("playerHistoryMap");
+        for (String key : history.getKeySet()) {
+            UUID uuid = UUID.fromString(key);
+            data.playerHistory.put(uuid, PlayerHistory.fromNBT(uuid, history.getCompoundTag(key)));
+        }
+        return data;
+    }
+}
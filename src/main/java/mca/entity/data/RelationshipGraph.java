@@ -0,0 +1,256 @@
+package mca.entity.data;
+
+import mca.core.Constants;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.world.World;
+import net.minecraft.world.storage.WorldSavedData;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * RelationshipGraph records who is married to whom and who the parents of each villager are, for villagers and
+ * players alike, whether or not they are loaded.
+ * <p>
+ * On a world that predates the graph, it is created knowing every player's marriage, villagers included, from the
+ * players' saved data. Marriages between villagers and all parentage are only recorded by the villagers themselves,
+ * so they are backfilled as each villager is loaded, and until then queries answer without them.
+ * <p>
+ * Each person's spouse, parents and children are kept as adjacency lists, so every query only costs the number of
+ * relatives it visits. Spouse and parent links are saved; children are rebuilt from the parent links on load. The
+ * graph also remembers each person's former spouse, so a villager that was unloaded while its marriage ended can tell
+ * that its own record of the marriage is out of date.
+ */
+public class RelationshipGraph extends WorldSavedData {
+    private static final String DATA_ID = "MCA-Relationships-V1";
+
+    private final Map<UUID, Node> nodes = new HashMap<>();
+
+    private static class Node {
+        UUID spouse;
+        UUID formerSpouse;
+        UUID parent1;
+        UUID parent2;
+        final Set<UUID> children = new HashSet<>();
+
+        boolean isEmpty() {
+            return spouse == null && formerSpouse == null && parent1 == null && parent2 == null && children.isEmpty();
+        }
+    }
+
+    public RelationshipGraph(String id) {
+        super(id);
+    }
+
+    public static RelationshipGraph get(World world) {
+        RelationshipGraph data = (RelationshipGraph) world.loadData(RelationshipGraph.class, DATA_ID);
+        if (data == null) {
+            data = new RelationshipGraph(DATA_ID);
+            for (PlayerSaveData player : PlayerSaveDataStore.get(world).getAll()) data.setSpouse(player.getUuid(), player.getSpouseUUID());
+            world.setData(DATA_ID, data);
+        }
+        return data;
+    }
+
+    /**
+     * Marries two people. Neither may be married to anyone else, so that a villager holding an outdated spouse can't
+     * break up a marriage its spouse has entered since. A null or zero spouse just ends the person's marriage.
+     *
+     * @return Whether the link was made, or true when only a marriage was ended
+     */
+    public boolean setSpouse(UUID uuid, @Nullable UUID spouse) {
+        spouse = orNull(spouse);
+        Node node = nodes.get(uuid);
+        UUID current = node == null ? null : node.spouse;
+        if (Objects.equals(current, spouse)) return true;
+
+        if (spouse == null) {
+            divorce(uuid);
+        } else {
+            if (current != null || getSpouse(spouse).isPresent()) return false;
+
+            link(uuid, spouse);
+            link(spouse, uuid);
+        }
+        markDirty();
+        return true;
+    }
+
+    /**
+     * Returns whether a spouse recorded by a villager being loaded no longer holds, because the two were divorced or
+     * either has married someone else since. A marriage the graph has never heard of is taken as it is.
+     */
+    public boolean isOutdatedSpouse(UUID uuid, @Nullable UUID spouse) {
+        spouse = orNull(spouse);
+        if (spouse == null) return false;
+
+        Node node = nodes.get(uuid);
+        if (node != null && spouse.equals(node.spouse)) return false;
+        if (node != null && (node.spouse != null || spouse.equals(node.formerSpouse))) return true;
+        return getSpouse(spouse).isPresent();
+    }
+
+    /**
+     * Sets a person's parents. Null or zero UUIDs mean that parent is unknown.
+     */
+    public void setParents(UUID uuid, @Nullable UUID parent1, @Nullable UUID parent2) {
+        parent1 = orNull(parent1);
+        parent2 = orNull(parent2);
+        Node node = nodes.get(uuid);
+        if (node == null ? parent1 == null && parent2 == null : Objects.equals(node.parent1, parent1) && Objects.equals(node.parent2, parent2)) {
+            return;
+        }
+
+        node = node(uuid);
+        removeChild(node.parent1, uuid);
+        removeChild(node.parent2, uuid);
+        node.parent1 = parent1;
+        node.parent2 = parent2;
+        if (parent1 != null) node(parent1).children.add(uuid);
+        if (parent2 != null) node(parent2).children.add(uuid);
+        prune(uuid);
+        markDirty();
+    }
+
+    /**
+     * Drops a person's own spouse and parent links, as when a villager dies. Links from their children are kept, so
+     * they still count as those children's parent.
+     */
+    public void forget(UUID uuid) {
+        setSpouse(uuid, null);
+        setParents(uuid, null, null);
+
+        Node node = nodes.get(uuid);
+        if (node != null && node.formerSpouse != null) {
+            node.formerSpouse = null;
+            prune(uuid);
+            markDirty();
+        }
+    }
+
+    public Optional<UUID> getSpouse(UUID uuid) {
+        Node node = nodes.get(uuid);
+        return Optional.ofNullable(node == null ? null : node.spouse);
+    }
+
+    public List<UUID> getParents(UUID uuid) {
+        Node node = nodes.get(uuid);
+        List<UUID> parents = new ArrayList<>(2);
+        if (node != null) {
+            if (node.parent1 != null) parents.add(node.parent1);
+            if (node.parent2 != null) parents.add(node.parent2);
+        }
+        return parents;
+    }
+
+    public Set<UUID> getChildren(UUID uuid) {
+        Node node = nodes.get(uuid);
+        return node == null ? Collections.emptySet() : Collections.unmodifiableSet(node.children);
+    }
+
+    /**
+     * Returns everyone sharing at least one parent with the given person.
+     */
+    public Set<UUID> getSiblings(UUID uuid) {
+        Set<UUID> siblings = new HashSet<>();
+        getParents(uuid).forEach(parent -> siblings.addAll(getChildren(parent)));
+        siblings.remove(uuid);
+        return siblings;
+    }
+
+    /**
+     * Returns the given person's children, grandchildren and so on, down to the given number of generations.
+     */
+    public Set<UUID> getDescendants(UUID uuid, int generations) {
+        Set<UUID> descendants = new HashSet<>();
+        Collection<UUID> generation = Collections.singleton(uuid);
+        for (int i = 0; i < generations && !generation.isEmpty(); i++) {
+            List<UUID> next = new ArrayList<>();
+            for (UUID member : generation) {
+                for (UUID child : getChildren(member)) {
+                    if (descendants.add(child)) next.add(child);
+                }
+            }
+            generation = next;
+        }
+        return descendants;
+    }
+
+    private void divorce(UUID uuid) {
+        Node node = nodes.get(uuid);
+        if (node == null || node.spouse == null) return;
+
+        Node spouse = nodes.get(node.spouse);
+        if (spouse != null && uuid.equals(spouse.spouse)) {
+            spouse.spouse = null;
+            spouse.formerSpouse = uuid;
+        }
+        node.formerSpouse = node.spouse;
+        node.spouse = null;
+    }
+
+    private void link(UUID uuid, UUID spouse) {
+        Node node = node(uuid);
+        node.spouse = spouse;
+        node.formerSpouse = null;
+    }
+
+    private void removeChild(@Nullable UUID parent, UUID child) {
+        if (parent == null) return;
+
+        Node node = nodes.get(parent);
+        if (node != null) {
+            node.children.remove(child);
+            prune(parent);
+        }
+    }
+
+    private Node node(UUID uuid) {
+        return nodes.computeIfAbsent(uuid, k -> new Node());
+    }
+
+    private void prune(UUID uuid) {
+        Node node = nodes.get(uuid);
+        if (node != null && node.isEmpty()) nodes.remove(uuid);
+    }
+
+    @Nullable
+    private static UUID orNull(@Nullable UUID uuid) {
+        return uuid == null || uuid.equals(Constants.ZERO_UUID) ? null : uuid;
+    }
+
+    @Override
+    public NBTTagCompound writeToNBT(NBTTagCompound nbt) {
+        NBTTagList list = new NBTTagList();
+        nodes.forEach((uuid, node) -> {
+            if (node.spouse == null && node.formerSpouse == null && node.parent1 == null && node.parent2 == null) return;
+
+            NBTTagCompound tag = new NBTTagCompound();
+            tag.setUniqueId("uuid", uuid);
+            if (node.spouse != null) tag.setUniqueId("spouse", node.spouse);
+            if (node.formerSpouse != null) tag.setUniqueId("formerSpouse", node.formerSpouse);
+            if (node.parent1 != null) tag.setUniqueId("parent1", node.parent1);
+            if (node.parent2 != null) tag.setUniqueId("parent2", node.parent2);
+            list.appendTag(tag);
+        });
+        nbt.setTag("nodes", list);
+        return nbt;
+    }
+
+    @Override
+    public void readFromNBT(NBTTagCompound nbt) {
+        NBTTagList list = nbt.getTagList("nodes", 10);
+        for (int i = 0; i < list.tagCount(); i++) {
+            NBTTagCompound tag = list.getCompoundTagAt(i);
+            UUID uuid = tag.getUniqueId("uuid");
+            Node node = node(uuid);
+            node.spouse = tag.hasUniqueId("spouse") ? tag.getUniqueId("spouse") : null;
+            node.formerSpouse = tag.hasUniqueId("formerSpouse") ? tag.getUniqueId("formerSpouse") : null;
+            node.parent1 = tag.hasUniqueId("parent1") ? tag.getUniqueId("parent1") : null;
+            node.parent2 = tag.hasUniqueId("parent2") ? tag.getUniqueId("parent2") : null;
+            if (node.parent1 != null) node(node.parent1).children.add(uuid);
+            if (node.parent2 != null) node(node.parent2).children.add(uuid);
+        }
+    }
+}
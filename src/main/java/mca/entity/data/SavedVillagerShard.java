@@ -0,0 +1,219 @@
+package mca.entity.data;
+
+import mca.core.MCA;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * SavedVillagerShard is one append-only log file of saved villagers.
+ * <p>
+ * Each record is {@code [int length][byte op][long uuidMost][long uuidLeast]}, followed for a PUT by
+ * {@code [long savedAt][int summaryLength][summary NBT][gzipped villager NBT]}. Saving or removing a villager appends
+ * one record, and the newest record for a UUID wins. Once superseded records outweigh live ones the file is rewritten.
+ * <p>
+ * Not thread safe; only ever touched from the background IO thread.
+ */
+class SavedVillagerShard {
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int HEADER_SIZE = 1 + 8 + 8;
+    private static final long MIN_COMPACT_GARBAGE = 64 * 1024;
+
+    private final File file;
+    private final Map<UUID, Location> locations = new HashMap<>();
+    private RandomAccessFile raf;
+    private long liveBytes;
+    private long garbageBytes;
+
+    interface Visitor {
+        void visit(UUID uuid, long savedAt, NBTTagCompound summary);
+    }
+
+    private static class Location {
+        final long offset;
+        final int length;
+
+        Location(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    SavedVillagerShard(File file) throws IOException {
+        this.file = file;
+        this.raf = new RandomAccessFile(file, "rw");
+    }
+
+    /**
+     * Reads every record to rebuild the location index, reporting the latest version of each live villager to the
+     * visitor. A torn record at the end of the file, left by a crash mid-append, is cut off. A complete record whose
+     * summary can't be read is skipped.
+     */
+    void load(Visitor visitor) throws IOException {
+        Map<UUID, Long> savedAt = new HashMap<>();
+        Map<UUID, NBTTagCompound> summaries = new HashMap<>();
+        long offset = 0;
+        long fileLength = raf.length();
+
+        raf.seek(0);
+        while (offset + 4 <= fileLength) {
+            int length = raf.readInt();
+            if (length < HEADER_SIZE || offset + 4 + length > fileLength) break;
+
+            byte[] body = new byte[length];
+            raf.readFully(body);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+            byte op = in.readByte();
+            UUID uuid = new UUID(in.readLong(), in.readLong());
+
+            long recordSavedAt = 0;
+            NBTTagCompound summary = null;
+            if (op == PUT) {
+                try {
+                    recordSavedAt = in.readLong();
+                    in.readInt();
+                    summary = CompressedStreamTools.read(in);
+                } catch (IOException e) {
+                    // The record itself is complete, so only it is lost. Whatever was saved before it stays live.
+                    MCA.getLog().warn("Skipping unreadable villager record for " + uuid + " in " + file.getName(), e);
+                    garbageBytes += 4 + length;
+                    offset += 4 + length;
+                    continue;
+                }
+            }
+
+            markGarbage(locations.remove(uuid));
+            if (op == PUT) {
+                savedAt.put(uuid, recordSavedAt);
+                summaries.put(uuid, summary);
+                locations.put(uuid, new Location(offset, 4 + length));
+                liveBytes += 4 + length;
+            } else {
+                savedAt.remove(uuid);
+                summaries.remove(uuid);
+                garbageBytes += 4 + length;
+            }
+            offset += 4 + length;
+        }
+
+        if (offset < fileLength) {
+            MCA.getLog().warn("Discarding " + (fileLength - offset) + " trailing bytes of incomplete villager data in " + file.getName());
+            raf.setLength(offset);
+        }
+
+        locations.keySet().forEach(uuid -> visitor.visit(uuid, savedAt.get(uuid), summaries.get(uuid)));
+    }
+
+    void put(UUID uuid, long savedAt, NBTTagCompound summary, NBTTagCompound data) throws IOException {
+        ByteArrayOutputStream summaryBytes = new ByteArrayOutputStream();
+        CompressedStreamTools.write(summary, new DataOutputStream(summaryBytes));
+        ByteArrayOutputStream dataBytes = new ByteArrayOutputStream();
+        CompressedStreamTools.writeCompressed(data, dataBytes);
+
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(record);
+        out.writeInt(HEADER_SIZE + 8 + 4 + summaryBytes.size() + dataBytes.size());
+        writeHeader(out, PUT, uuid);
+        out.writeLong(savedAt);
+        out.writeInt(summaryBytes.size());
+        summaryBytes.writeTo(out);
+        dataBytes.writeTo(out);
+
+        long offset = append(record.toByteArray());
+        markGarbage(locations.put(uuid, new Location(offset, record.size())));
+        liveBytes += record.size();
+        compactIfNeeded();
+    }
+
+    void delete(UUID uuid) throws IOException {
+        Location previous = locations.remove(uuid);
+        if (previous == null) return;
+
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(record);
+        out.writeInt(HEADER_SIZE);
+        writeHeader(out, DELETE, uuid);
+
+        append(record.toByteArray());
+        markGarbage(previous);
+        garbageBytes += record.size();
+        compactIfNeeded();
+    }
+
+    /**
+     * Reads the full NBT of one villager, or null if the shard holds none for the UUID.
+     */
+    NBTTagCompound read(UUID uuid) throws IOException {
+        Location location = locations.get(uuid);
+        if (location == null) return null;
+
+        byte[] record = new byte[location.length];
+        raf.seek(location.offset);
+        raf.readFully(record);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        in.skipBytes(4 + HEADER_SIZE + 8);
+        in.skipBytes(in.readInt());
+        return CompressedStreamTools.readCompressed(in);
+    }
+
+    void close() throws IOException {
+        raf.close();
+    }
+
+    private static void writeHeader(DataOutputStream out, byte op, UUID uuid) throws IOException {
+        out.writeByte(op);
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private long append(byte[] record) throws IOException {
+        long offset = raf.length();
+        raf.seek(offset);
+        raf.write(record);
+        return offset;
+    }
+
+    private void markGarbage(Location location) {
+        if (location != null) {
+            liveBytes -= location.length;
+            garbageBytes += location.length;
+        }
+    }
+
+    /**
+     * Rewrites the shard with only its live records once the superseded ones take up more space than they do. The new
+     * file is written aside and moved over the old one, so a crash part way leaves the old log intact.
+     */
+    private void compactIfNeeded() throws IOException {
+        if (garbageBytes < MIN_COMPACT_GARBAGE || garbageBytes < liveBytes) return;
+
+        File temp = new File(file.getPath() + ".tmp");
+        Map<UUID, Location> compacted = new HashMap<>();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            long offset = 0;
+            for (Map.Entry<UUID, Location> entry : locations.entrySet()) {
+                byte[] record = new byte[entry.getValue().length];
+                raf.seek(entry.getValue().offset);
+                raf.readFully(record);
+                out.write(record);
+                compacted.put(entry.getKey(), new Location(offset, record.length));
+                offset += record.length;
+            }
+        }
+
+        raf.close();
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        raf = new RandomAccessFile(file, "rw");
+        locations.clear();
+        locations.putAll(compacted);
+        garbageBytes = 0;
+    }
+}
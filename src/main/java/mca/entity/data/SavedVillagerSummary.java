@@ -0,0 +1,91 @@
+package mca.entity.data;
+
+import lombok.Getter;
+import mca.entity.EntityVillagerMCA;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
+import net.minecraftforge.fml.common.registry.VillagerRegistry;
+
+import java.util.UUID;
+
+import static mca.entity.EntityVillagerMCA.*;
+
+/**
+ * SavedVillagerSummary holds the few fields of a saved villager needed to display it, so that browsing saved
+ * villagers never has to send their full NBT.
+ */
+@Getter
+public class SavedVillagerSummary {
+    private UUID uuid;
+    private String name;
+    private int gender;
+    private String texture;
+    private String profession;
+    private int career;
+    private int ageState;
+    private float girth;
+    private float tallness;
+
+    /**
+     * Creates a summary from the full NBT written by EntityVillagerMCA.
+     */
+    public static SavedVillagerSummary fromVillagerNBT(NBTTagCompound nbt) {
+        VillagerRecord record = VillagerRecord.fromNBT(nbt);
+        SavedVillagerSummary summary = new SavedVillagerSummary();
+        summary.uuid = nbt.getUniqueId("uuid");
+        summary.name = record.getName();
+        summary.gender = record.getGender();
+        summary.texture = record.getTexture();
+        summary.profession = nbt.getString("ProfessionName");
+        summary.career = nbt.getInteger("Career");
+        summary.ageState = record.getAgeState();
+        summary.girth = record.getGirth();
+        summary.tallness = record.getTallness();
+        return summary;
+    }
+
+    public static SavedVillagerSummary fromNBT(NBTTagCompound nbt) {
+        SavedVillagerSummary summary = new SavedVillagerSummary();
+        summary.uuid = nbt.getUniqueId("uuid");
+        summary.name = nbt.getString("name");
+        summary.gender = nbt.getInteger("gender");
+        summary.texture = nbt.getString("texture");
+        summary.profession = nbt.getString("ProfessionName");
+        summary.career = nbt.getInteger("Career");
+        summary.ageState = nbt.getInteger("ageState");
+        summary.girth = nbt.getFloat("girth");
+        summary.tallness = nbt.getFloat("tallness");
+        return summary;
+    }
+
+    public NBTTagCompound toNBT() {
+        NBTTagCompound nbt = new NBTTagCompound();
+        nbt.setUniqueId("uuid", uuid);
+        nbt.setString("name", name);
+        nbt.setInteger("gender", gender);
+        nbt.setString("texture", texture);
+        nbt.setString("ProfessionName", profession);
+        nbt.setInteger("Career", career);
+        nbt.setInteger("ageState", ageState);
+        nbt.setFloat("girth", girth);
+        nbt.setFloat("tallness", tallness);
+        return nbt;
+    }
+
+    /**
+     * Makes the provided villager look like the summarized one. Used for display copies on the client.
+     */
+    public void applyTo(EntityVillagerMCA villager) {
+        villager.set(VILLAGER_NAME, name);
+        villager.set(GENDER, gender);
+        villager.set(TEXTURE, texture);
+        villager.set(AGE_STATE, ageState);
+        villager.set(GIRTH, girth);
+        villager.set(TALLNESS, tallness);
+
+        VillagerRegistry.VillagerProfession prof = ForgeRegistries.VILLAGER_PROFESSIONS.getValue(new ResourceLocation(profession));
+        if (prof != null) villager.setProfession(prof);
+        villager.setVanillaCareer(career);
+    }
+}
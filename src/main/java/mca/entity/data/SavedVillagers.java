@@ -1,60 +1,321 @@
 package mca.entity.data;
 
+import mca.core.Constants;
+import mca.core.MCA;
 import mca.entity.EntityVillagerMCA;
+import mca.util.BackgroundIO;
+import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTUtil;
 import net.minecraft.world.World;
-import net.minecraft.world.storage.WorldSavedData;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * SavedVillagers handles saving dead villagers to the world which allows them to be restored later.
+ * <p>
+ * Villagers are spread over 16 append-only shard files under data/mca/villagers by the first hex digit of their UUID.
+ * Only a small summary of each villager is kept in memory; a death appends one record on the background IO thread and
+ * a revive reads back one record. The shards are indexed on the background IO thread as well when the server starts, so
+ * until that's done only the villagers saved since are listed.
+ * <p>
+ * Retention is bounded by the configured total limit, per-owner limit and lifetime, with the oldest villagers forgotten
+ * first. A villager's owners are its spouse and parents. Forgotten records are dropped when their shard is compacted.
  */
-public class SavedVillagers extends WorldSavedData {
-    private static final String DATA_ID = "MCA-Villagers-V1";
-    private Map<String, NBTTagCompound> villagerData = new HashMap<>();
+public class SavedVillagers {
+    private static final String LEGACY_DATA_ID = "MCA-Villagers-V1";
+    private static final int SHARD_COUNT = 16;
+    // Nothing that reset() clears or that reviving never reads needs to be kept. Entity position and motion are only read
+    // by readFromNBT, which reviving never calls, and inventories are dropped on death. Trade offers are kept: vanilla
+    // would only give a villager without any the trades of its next career level, losing every tier it had unlocked.
+    private static final String[] STRIPPED_KEYS = {"inventory", "playerHistoryMap", "Inventory", "ActiveEffects",
+            "Pos", "Motion", "Rotation", "FallDistance", "Fire", "Air", "OnGround", "Dimension", "PortalCooldown", "HurtTime",
+            "HurtByTimestamp", "DeathTime", "AbsorptionAmount", "ArmorItems", "HandItems"};
+    private static SavedVillagers instance;
 
-    public SavedVillagers(String id) {
-        super(id);
+    private final File directory;
+    private final SavedVillagerShard[] shards = new SavedVillagerShard[SHARD_COUNT];
+    // Linked in the order villagers were saved, so pages stay stable while browsed and the oldest are evicted first.
+    private final Map<UUID, Entry> entries = new LinkedHashMap<>();
+    private final Map<UUID, Integer> ownerCounts = new HashMap<>();
+    // Villagers whose record has been queued but not yet written, so a revive in the meantime still finds them.
+    private final Map<UUID, NBTTagCompound> pending = new ConcurrentHashMap<>();
+
+    private SavedVillagers(File directory) {
+        this.directory = directory;
     }
 
-    public static SavedVillagers get(World world) {
-        SavedVillagers data = (SavedVillagers) world.loadData(SavedVillagers.class, DATA_ID);
-        if (data == null) {
-            data = new SavedVillagers(DATA_ID);
-            world.setData(DATA_ID, data);
+    /**
+     * Returns the saved villagers of the world's save, queueing them to be opened first if they aren't yet. Called for
+     * the overworld when the server starts, so the shards are usually indexed by the time anything needs them.
+     */
+    public static synchronized SavedVillagers get(World world) {
+        File root = world.getSaveHandler().getWorldDirectory();
+        File directory = new File(root, "data/mca/villagers");
+        if (instance == null || !instance.directory.equals(directory)) {
+            close();
+            SavedVillagers villagers = new SavedVillagers(directory);
+            File legacyFile = new File(root, "data/" + LEGACY_DATA_ID + ".dat");
+            BackgroundIO.execute(() -> {
+                try {
+                    villagers.open(legacyFile);
+                } catch (IOException e) {
+                    MCA.getLog().error("Failed to open saved villagers in " + directory, e);
+                }
+            });
+            instance = villagers;
         }
-        return data;
+        return instance;
+    }
+
+    /**
+     * Waits for queued writes and releases the shard files. Called when the server stops.
+     */
+    public static synchronized void close() {
+        if (instance == null) return;
+        SavedVillagers villagers = instance;
+        instance = null;
+        BackgroundIO.execute(() -> {
+            for (SavedVillagerShard shard : villagers.shards) {
+                if (shard != null) shard.close();
+            }
+        });
+        BackgroundIO.flush();
     }
 
-    public void save(EntityVillagerMCA villager) {
-        villagerData.put(villager.getUniqueID().toString(), villager.writeToNBT(new NBTTagCompound()));
-        markDirty();
+    public synchronized void save(EntityVillagerMCA villager) {
+        UUID uuid = villager.getUniqueID();
+        NBTTagCompound nbt = villager.writeToNBT(new NBTTagCompound());
+        Entry entry = new Entry(SavedVillagerSummary.fromVillagerNBT(nbt), System.currentTimeMillis(), ownersOf(nbt));
+        strip(nbt);
+
+        put(uuid, entry);
+        pending.put(uuid, nbt);
+        BackgroundIO.execute(() -> {
+            SavedVillagerShard shard = shardOf(uuid);
+            if (shard != null) shard.put(uuid, entry.savedAt, entry.toNBT(), nbt);
+            pending.remove(uuid, nbt);
+        });
+        enforceRetention();
+    }
+
+    /**
+     * Forgets a saved villager and queues its record to be deleted.
+     *
+     * @return Whether the villager was saved
+     */
+    public synchronized boolean remove(UUID uuid) {
+        if (!forget(uuid)) return false;
+
+        pending.remove(uuid);
+        BackgroundIO.execute(() -> {
+            SavedVillagerShard shard = shardOf(uuid);
+            if (shard != null) shard.delete(uuid);
+        });
+        return true;
     }
 
-    public void remove(UUID uuid) {
-        villagerData.remove(uuid.toString());
-        markDirty();
+    public synchronized int size() {
+        return entries.size();
     }
 
-    public Map<String, NBTTagCompound> getMap() {
-        return villagerData;
+    /**
+     * Returns summaries of a range of the saved villagers.
+     *
+     * @param offset Index of the first villager to summarize
+     * @param count  Maximum number of villagers to summarize
+     * @return List of summaries in the order the villagers were saved
+     */
+    public synchronized List<SavedVillagerSummary> getSummaries(int offset, int count) {
+        return entries.values().stream()
+                .skip(offset)
+                .limit(count)
+                .map(e -> e.summary)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reads the full NBT of a saved villager and hands it to the callback, or null if the villager can't be loaded.
+     * The callback runs on the background IO thread, or right away when there's no record to read.
+     */
+    public void loadByUUID(UUID uuid, Consumer<NBTTagCompound> callback) {
+        synchronized (this) {
+            if (!entries.containsKey(uuid)) {
+                callback.accept(null);
+                return;
+            }
+        }
+
+        NBTTagCompound nbt = pending.get(uuid);
+        if (nbt != null) {
+            callback.accept(nbt);
+            return;
+        }
+
+        BackgroundIO.execute(() -> {
+            SavedVillagerShard shard = shardOf(uuid);
+            NBTTagCompound loaded = null;
+            try {
+                if (shard != null) loaded = shard.read(uuid);
+            } catch (IOException e) {
+                MCA.getLog().error("Failed to load saved villager " + uuid, e);
+            }
+            callback.accept(loaded);
+        });
     }
 
-    public NBTTagCompound loadByUUID(UUID uuid) {
-        return villagerData.get(uuid.toString());
+    private void put(UUID uuid, Entry entry) {
+        forget(uuid);
+        entries.put(uuid, entry);
+        entry.owners.forEach(owner -> ownerCounts.merge(owner, 1, Integer::sum));
     }
 
-    @Override
-    public NBTTagCompound writeToNBT(NBTTagCompound nbt) {
-        villagerData.forEach(nbt::setTag);
-        return nbt;
+    private boolean forget(UUID uuid) {
+        Entry entry = entries.remove(uuid);
+        if (entry == null) return false;
+
+        entry.owners.forEach(owner -> ownerCounts.computeIfPresent(owner, (k, count) -> count > 1 ? count - 1 : null));
+        return true;
+    }
+
+    /**
+     * Forgets the oldest villagers until every configured limit holds again.
+     */
+    private void enforceRetention() {
+        int limit = MCA.getConfig().savedVillagerLimit;
+        int ownerLimit = MCA.getConfig().savedVillagerLimitPerOwner;
+        int lifetimeDays = MCA.getConfig().savedVillagerLifetimeDays;
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(lifetimeDays);
+
+        List<UUID> expired = new ArrayList<>();
+        int remaining = entries.size();
+        Map<UUID, Integer> excessByOwner = new HashMap<>();
+        if (ownerLimit > 0) {
+            ownerCounts.forEach((owner, count) -> {
+                if (count > ownerLimit) excessByOwner.put(owner, count - ownerLimit);
+            });
+        }
+
+        for (Map.Entry<UUID, Entry> e : entries.entrySet()) {
+            Entry entry = e.getValue();
+            boolean tooMany = limit > 0 && remaining > limit;
+            boolean tooOld = lifetimeDays > 0 && entry.savedAt < cutoff;
+            boolean ownerFull = entry.owners.stream().anyMatch(excessByOwner::containsKey);
+            if (!tooMany && !tooOld && !ownerFull) {
+                // Entries are oldest first, so once the age and total limits hold they hold for everything after.
+                if (excessByOwner.isEmpty()) break;
+                continue;
+            }
+
+            expired.add(e.getKey());
+            remaining--;
+            entry.owners.forEach(owner -> excessByOwner.computeIfPresent(owner, (k, excess) -> excess > 1 ? excess - 1 : null));
+        }
+
+        expired.forEach(this::remove);
+    }
+
+    private static List<UUID> ownersOf(NBTTagCompound nbt) {
+        ParentData parents = ParentData.fromNBT(nbt.getCompoundTag("parents"));
+        List<UUID> owners = new ArrayList<>();
+        for (UUID owner : new UUID[]{VillagerRecord.fromNBT(nbt).getSpouseUUID(), parents.getParent1UUID(), parents.getParent2UUID()}) {
+            if (owner != null && !owner.equals(Constants.ZERO_UUID) && !owners.contains(owner)) owners.add(owner);
+        }
+        return owners;
     }
 
-    @Override
-    public void readFromNBT(NBTTagCompound nbt) {
-        nbt.getKeySet().forEach((k) -> villagerData.put(k, nbt.getCompoundTag(k)));
+    private static void strip(NBTTagCompound nbt) {
+        for (String key : STRIPPED_KEYS) nbt.removeTag(key);
+    }
+
+    private SavedVillagerShard shardOf(UUID uuid) {
+        return shards[(int) (uuid.getMostSignificantBits() >>> 60)];
+    }
+
+    /**
+     * Opens every shard and indexes its villagers, then moves over any villagers from the old single-file format.
+     * Runs on the background IO thread. Villagers saved or removed on the server thread in the meantime are newer than
+     * anything on disk, so they're kept ahead of what was loaded.
+     */
+    private void open(File legacyFile) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+
+        List<Entry> loaded = new ArrayList<>();
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new SavedVillagerShard(new File(directory, "shard-" + Integer.toHexString(i) + ".dat"));
+            shards[i].load((uuid, savedAt, nbt) -> loaded.add(Entry.fromNBT(savedAt, nbt)));
+        }
+        loaded.sort(Comparator.comparingLong(e -> e.savedAt));
+        if (legacyFile.isFile()) migrate(legacyFile, loaded);
+
+        synchronized (this) {
+            Map<UUID, Entry> newer = new LinkedHashMap<>(entries);
+            entries.clear();
+            ownerCounts.clear();
+            loaded.forEach(e -> put(e.summary.getUuid(), e));
+            newer.forEach(this::put);
+            enforceRetention();
+        }
+    }
+
+    private void migrate(File legacyFile, List<Entry> loaded) throws IOException {
+        NBTTagCompound data;
+        try (FileInputStream in = new FileInputStream(legacyFile)) {
+            data = CompressedStreamTools.readCompressed(in).getCompoundTag("data");
+        }
+
+        long savedAt = System.currentTimeMillis();
+        for (String key : data.getKeySet()) {
+            NBTTagCompound nbt = data.getCompoundTag(key);
+            Entry entry = new Entry(SavedVillagerSummary.fromVillagerNBT(nbt), savedAt, ownersOf(nbt));
+            strip(nbt);
+            shardOf(entry.summary.getUuid()).put(entry.summary.getUuid(), savedAt, entry.toNBT(), nbt);
+            loaded.add(entry);
+        }
+
+        if (!legacyFile.renameTo(new File(legacyFile.getPath() + ".migrated"))) {
+            MCA.getLog().warn("Could not rename " + legacyFile + " after migrating saved villagers; it will be migrated again");
+        }
+        MCA.getLog().info("Migrated " + data.getKeySet().size() + " saved villagers to " + directory);
+    }
+
+    /**
+     * What's kept in memory for each saved villager: its display summary and what retention needs to know about it.
+     */
+    private static class Entry {
+        final SavedVillagerSummary summary;
+        final long savedAt;
+        final List<UUID> owners;
+
+        Entry(SavedVillagerSummary summary, long savedAt, List<UUID> owners) {
+            this.summary = summary;
+            this.savedAt = savedAt;
+            this.owners = owners;
+        }
+
+        static Entry fromNBT(long savedAt, NBTTagCompound nbt) {
+            List<UUID> owners = new ArrayList<>();
+            NBTTagList list = nbt.getTagList("owners", 10);
+            for (int i = 0; i < list.tagCount(); i++) owners.add(NBTUtil.getUUIDFromTag(list.getCompoundTagAt(i)));
+            return new Entry(SavedVillagerSummary.fromNBT(nbt), savedAt, owners);
+        }
+
+        NBTTagCompound toNBT() {
+            NBTTagCompound nbt = summary.toNBT();
+            NBTTagList list = new NBTTagList();
+            owners.forEach(owner -> list.appendTag(NBTUtil.createUUIDTag(owner)));
+            nbt.setTag("owners", list);
+            return nbt;
+        }
     }
 }
@@ -0,0 +1,167 @@
+package mca.entity.data;
+
+import io.netty.buffer.Unpooled;
+import lombok.Getter;
+import lombok.Setter;
+import mca.core.Constants;
+import mca.core.MCA;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.UUID;
+
+/**
+ * VillagerRecord holds the scalar state of an MCA villager and stores it in one compact byte array tag, in place of
+ * the ~30 separate string-keyed tags villagers used to be saved with.
+ * <p>
+ * Positions are packed into longs, flags into a single bit field and enum IDs into varints. The first byte is a format
+ * version. Villagers saved in the old layout are read from their separate tags instead.
+ */
+@Getter
+@Setter
+public class VillagerRecord {
+    private static final String TAG = "mcaData";
+    private static final int VERSION = 1;
+    private static final int MAX_STRING_LENGTH = 32767;
+
+    private static final int PROCREATING = 1;
+    private static final int INFECTED = 1 << 1;
+    private static final int HAS_BABY = 1 << 2;
+    private static final int BABY_IS_MALE = 1 << 3;
+    private static final int SLEEPING = 1 << 4;
+
+    private String name = "";
+    private String texture = "";
+    private int gender;
+    private float girth;
+    private float tallness;
+    private int moveState;
+    private int marriageState;
+    private UUID spouseUUID = Constants.ZERO_UUID;
+    private String spouseName = "";
+    private boolean procreating;
+    private boolean infected;
+    private boolean hasBaby;
+    private boolean babyIsMale;
+    private boolean sleeping;
+    private int ageState;
+    private int startingAge;
+    private int babyAge;
+    private int activeChore;
+    private UUID choreAssigningPlayer = Constants.ZERO_UUID;
+    private UUID playerToFollowUUID = Constants.ZERO_UUID;
+    private BlockPos home = BlockPos.ORIGIN;
+    private BlockPos bedPos = BlockPos.ORIGIN;
+    private BlockPos workplacePos = BlockPos.ORIGIN;
+    private BlockPos hangoutPos = BlockPos.ORIGIN;
+
+    /**
+     * Reads the record from villager NBT, falling back to the old separate tags if the villager predates this format.
+     */
+    public static VillagerRecord fromNBT(NBTTagCompound nbt) {
+        VillagerRecord record = new VillagerRecord();
+        if (nbt.hasKey(TAG, 7)) {
+            try {
+                record.read(new PacketBuffer(Unpooled.wrappedBuffer(nbt.getByteArray(TAG))));
+                return record;
+            } catch (RuntimeException e) {
+                MCA.getLog().error("Failed to read villager data, falling back to legacy tags", e);
+                record = new VillagerRecord();
+            }
+        }
+        record.readLegacy(nbt);
+        return record;
+    }
+
+    public void writeToNBT(NBTTagCompound nbt) {
+        PacketBuffer buf = new PacketBuffer(Unpooled.buffer(128));
+        write(buf);
+        byte[] bytes = new byte[buf.readableBytes()];
+        buf.readBytes(bytes);
+        nbt.setByteArray(TAG, bytes);
+    }
+
+    private void write(PacketBuffer buf) {
+        buf.writeByte(VERSION);
+        buf.writeString(name);
+        buf.writeString(texture);
+        buf.writeVarInt(gender);
+        buf.writeFloat(girth);
+        buf.writeFloat(tallness);
+        buf.writeVarInt(moveState);
+        buf.writeVarInt(marriageState);
+        buf.writeUniqueId(spouseUUID);
+        buf.writeString(spouseName);
+        buf.writeVarInt((procreating ? PROCREATING : 0) | (infected ? INFECTED : 0) | (hasBaby ? HAS_BABY : 0)
+                | (babyIsMale ? BABY_IS_MALE : 0) | (sleeping ? SLEEPING : 0));
+        buf.writeVarInt(ageState);
+        buf.writeVarInt(startingAge);
+        buf.writeVarInt(babyAge);
+        buf.writeVarInt(activeChore);
+        buf.writeUniqueId(choreAssigningPlayer);
+        buf.writeUniqueId(playerToFollowUUID);
+        buf.writeLong(home.toLong());
+        buf.writeLong(bedPos.toLong());
+        buf.writeLong(workplacePos.toLong());
+        buf.writeLong(hangoutPos.toLong());
+    }
+
+    private void read(PacketBuffer buf) {
+        int version = buf.readByte();
+        if (version != VERSION) throw new IllegalArgumentException("Unknown villager data version " + version);
+
+        name = buf.readString(MAX_STRING_LENGTH);
+        texture = buf.readString(MAX_STRING_LENGTH);
+        gender = buf.readVarInt();
+        girth = buf.readFloat();
+        tallness = buf.readFloat();
+        moveState = buf.readVarInt();
+        marriageState = buf.readVarInt();
+        spouseUUID = buf.readUniqueId();
+        spouseName = buf.readString(MAX_STRING_LENGTH);
+        int flags = buf.readVarInt();
+        procreating = (flags & PROCREATING) != 0;
+        infected = (flags & INFECTED) != 0;
+        hasBaby = (flags & HAS_BABY) != 0;
+        babyIsMale = (flags & BABY_IS_MALE) != 0;
+        sleeping = (flags & SLEEPING) != 0;
+        ageState = buf.readVarInt();
+        startingAge = buf.readVarInt();
+        babyAge = buf.readVarInt();
+        activeChore = buf.readVarInt();
+        choreAssigningPlayer = buf.readUniqueId();
+        playerToFollowUUID = buf.readUniqueId();
+        home = BlockPos.fromLong(buf.readLong());
+        bedPos = BlockPos.fromLong(buf.readLong());
+        workplacePos = BlockPos.fromLong(buf.readLong());
+        hangoutPos = BlockPos.fromLong(buf.readLong());
+    }
+
+    private void readLegacy(NBTTagCompound nbt) {
+        name = nbt.getString("name");
+        texture = nbt.getString("texture");
+        gender = nbt.getInteger("gender");
+        girth = nbt.getFloat("girth");
+        tallness = nbt.getFloat("tallness");
+        moveState = nbt.getInteger("moveState");
+        marriageState = nbt.getInteger("marriageState");
+        spouseUUID = nbt.getUniqueId("spouseUUID");
+        spouseName = nbt.getString("spouseName");
+        procreating = nbt.getBoolean("isProcreating");
+        infected = nbt.getBoolean("infected");
+        hasBaby = nbt.getBoolean("hasBaby");
+        babyIsMale = nbt.getBoolean("babyIsMale");
+        sleeping = nbt.getBoolean("sleeping");
+        ageState = nbt.getInteger("ageState");
+        startingAge = nbt.getInteger("startingAge");
+        babyAge = nbt.getInteger("babyAge");
+        activeChore = nbt.getInteger("activeChore");
+        choreAssigningPlayer = nbt.getUniqueId("choreAssigningPlayer");
+        playerToFollowUUID = nbt.getUniqueId("playerToFollowUUID");
+        home = new BlockPos(nbt.getDouble("homePositionX"), nbt.getDouble("homePositionY"), nbt.getDouble("homePositionZ"));
+        bedPos = new BlockPos(nbt.getInteger("bedX"), nbt.getInteger("bedY"), nbt.getInteger("bedZ"));
+        workplacePos = new BlockPos(nbt.getInteger("workplaceX"), nbt.getInteger("workplaceY"), nbt.getInteger("workplaceZ"));
+        hangoutPos = new BlockPos(nbt.getInteger("hangoutX"), nbt.getInteger("hangoutY"), nbt.getInteger("hangoutZ"));
+    }
+}
@@ -0,0 +1,26 @@
+package mca.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import mca.core.MCA;
+
+/**
+ * How much detail a villager's AI runs at, chosen by the distance to the nearest player.
+ */
+@AllArgsConstructor
+public enum EnumAILevel {
+    FULL(0),        // every task runs as normal
+    REDUCED(20),    // sleeping, going to work or hangouts and chores are only considered once a second
+    SIMULATED(100); // no pathing at all, chores produce their results directly every few seconds
+
+    // Ticks between evaluations of AbstractEntityAIChore tasks
+    @Getter int evaluationInterval;
+
+    public static EnumAILevel byDistanceSq(double distanceSq) {
+        double full = MCA.getConfig().aiFullDetailRange;
+        double reduced = MCA.getConfig().aiReducedDetailRange;
+        if (distanceSq <= full * full) return FULL;
+        if (distanceSq <= reduced * reduced) return REDUCED;
+        return SIMULATED;
+    }
+}
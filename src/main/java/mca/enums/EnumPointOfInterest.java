@@ -0,0 +1,45 @@
+package mca.enums;
+
+import lombok.AllArgsConstructor;
+import net.minecraft.block.*;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+
+import javax.annotation.Nullable;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+@AllArgsConstructor
+public enum EnumPointOfInterest {
+    BED(b -> b instanceof BlockBed),
+    CROP(b -> b instanceof BlockCrops),
+    LOG(b -> b instanceof BlockLog),
+    ORE(b -> b instanceof BlockOre),
+    WATER(b -> b == Blocks.WATER);
+
+    private static Map<IBlockState, EnumPointOfInterest> byState;
+
+    Predicate<Block> matcher;
+
+    /**
+     * Returns the point of interest type of the provided block state, or null if it isn't one.
+     * The lookup table is built from the block registry on first use.
+     */
+    @Nullable
+    public static EnumPointOfInterest byState(IBlockState state) {
+        if (byState == null) {
+            Map<IBlockState, EnumPointOfInterest> map = new IdentityHashMap<>();
+            for (Block block : Block.REGISTRY) {
+                for (EnumPointOfInterest type : values()) {
+                    if (type.matcher.test(block)) {
+                        block.getBlockState().getValidStates().forEach(s -> map.put(s, type));
+                        break;
+                    }
+                }
+            }
+            byState = map;
+        }
+        return byState.get(state);
+    }
+}
@@ -0,0 +1,54 @@
+package mca.util;
+
+import mca.core.MCA;
+
+import java.util.concurrent.*;
+
+/**
+ * BackgroundIO runs MCA's disk work on a single background thread, keeping it off the server thread.
+ * <p>
+ * Tasks run one at a time in the order they were submitted, so a read submitted after a write always sees that write.
+ */
+public class BackgroundIO {
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "MCA Background IO");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Queues a task whose failure should only be logged.
+     */
+    public static void execute(IOTask task) {
+        EXECUTOR.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                MCA.getLog().error("Background IO task failed", e);
+            }
+        });
+    }
+
+    /**
+     * Queues a task and returns a future for its result.
+     */
+    public static <T> Future<T> submit(Callable<T> task) {
+        return EXECUTOR.submit(task);
+    }
+
+    /**
+     * Blocks until every task queued so far has finished.
+     */
+    public static void flush() {
+        try {
+            submit(() -> null).get();
+        } catch (InterruptedException | ExecutionException e) {
+            MCA.getLog().error("Interrupted while waiting for background IO to finish", e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface IOTask {
+        void run() throws Exception;
+    }
+}
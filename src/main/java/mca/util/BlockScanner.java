@@ -0,0 +1,43 @@
+package mca.util;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+/**
+ * BlockScanner walks every block of a loaded chunk, one chunk section at a time.
+ * <p>
+ * Sections that were never generated or contain only air are skipped without touching a single block, and blocks are
+ * read straight from each section's storage rather than through World#getBlockState. The PointOfInterestIndex builds
+ * its chunk entries with it, so this is the only place that reads a chunk block by block.
+ */
+public class BlockScanner {
+    @FunctionalInterface
+    public interface BlockVisitor {
+        /**
+         * @param x     X coordinate within the chunk, 0 to 15
+         * @param y     World Y coordinate
+         * @param z     Z coordinate within the chunk, 0 to 15
+         * @param state State of the block
+         */
+        void visit(int x, int y, int z, IBlockState state);
+    }
+
+    /**
+     * Hands every block in the non-empty sections of the chunk to the visitor, bottom section first.
+     */
+    public static void scanChunk(Chunk chunk, BlockVisitor visitor) {
+        for (ExtendedBlockStorage storage : chunk.getBlockStorageArray()) {
+            if (storage == Chunk.NULL_BLOCK_STORAGE || storage.isEmpty()) continue;
+
+            int baseY = storage.getYLocation();
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        visitor.visit(x, baseY + y, z, storage.get(x, y, z));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package mca.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * FieldAccessor reads and writes a private field of another class through method handles that are resolved once,
+ * instead of looking the field up reflectively on every access like ObfuscationReflectionHelper does.
+ * <p>
+ * Fields are located by their declaration index so that the same accessor works in both deobfuscated and obfuscated
+ * environments.
+ *
+ * @param <C> Class that declares the field
+ * @param <T> Type of the field's value
+ */
+public class FieldAccessor<C, T> {
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    public FieldAccessor(Class<C> clazz, int fieldIndex) {
+        try {
+            Field field = clazz.getDeclaredFields()[fieldIndex];
+            field.setAccessible(true);
+            this.getter = MethodHandles.lookup().unreflectGetter(field);
+            this.setter = Modifier.isFinal(field.getModifiers()) ? null : MethodHandles.lookup().unreflectSetter(field);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalStateException("Unable to access field " + fieldIndex + " of " + clazz.getName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(C instance) {
+        try {
+            return (T) getter.invoke(instance);
+        } catch (Throwable t) {
+            throw new IllegalStateException("Unable to read field", t);
+        }
+    }
+
+    public void set(C instance, T value) {
+        if (setter == null) throw new IllegalStateException("Field is final");
+        try {
+            setter.invoke(instance, value);
+        } catch (Throwable t) {
+            throw new IllegalStateException("Unable to write field", t);
+        }
+    }
+}
@@ -3,20 +3,20 @@ package mca.util;
 import com.google.common.base.Optional;
 import com.google.gson.Gson;
 import mca.core.MCA;
+import mca.core.minecraft.VillagerIndex;
 import net.minecraft.block.Block;
 import net.minecraft.entity.Entity;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 import org.apache.commons.io.IOUtils;
 
-import javax.annotation.Nullable;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -64,41 +64,20 @@ public class Util {
         return data;
     }
 
+    /**
+     * Looks up a loaded entity by its UUID without scanning the world's entity list.
+     * MCA villagers and players are found on both sides, any other entity only on the server.
+     */
     public static Optional<Entity> getEntityByUUID(World world, UUID uuid) {
-        for (Entity entity : world.loadedEntityList) {
-            if (entity.getUniqueID().equals(uuid)) {
-                return Optional.of(entity);
-            }
-        }
-        return Optional.absent();
+        Entity entity = VillagerIndex.get(world, uuid);
+        if (entity == null) entity = world.getPlayerEntityByUUID(uuid);
+        if (entity == null && world instanceof WorldServer) entity = ((WorldServer) world).getEntityFromUuid(uuid);
+        return Optional.fromNullable(entity);
     }
 
     public static <T extends Entity> Optional<T> getEntityByUUID(World world, UUID uuid, Class<? extends T> clazz) {
-        for (Entity entity : world.loadedEntityList) {
-            if (entity.getClass().isAssignableFrom(clazz) && entity.getUniqueID().equals(uuid)) {
-                return Optional.of((T) entity);
-            }
-        }
-        return Optional.absent();
-    }
-
-    public static List<BlockPos> getNearbyBlocks(BlockPos origin, World world, @Nullable Class filter, int xzDist, int yDist) {
-        final List<BlockPos> pointsList = new ArrayList<>();
-        for (int x = -xzDist; x <= xzDist; x++) {
-            for (int y = -yDist; y <= yDist; y++) {
-                for (int z = -xzDist; z <= xzDist; z++) {
-                    if (x != 0 || y != 0 || z != 0) {
-                        BlockPos pos = new BlockPos(origin.getX() + x, origin.getY() + y, origin.getZ() + z);
-                        if (filter != null && filter.isAssignableFrom(world.getBlockState(pos).getBlock().getClass())) {
-                            pointsList.add(pos);
-                        } else if (filter == null) {
-                            pointsList.add(pos);
-                        }
-                    }
-                }
-            }
-        }
-        return pointsList;
+        Optional<Entity> entity = getEntityByUUID(world, uuid);
+        return entity.isPresent() && clazz.isInstance(entity.get()) ? Optional.of((T) entity.get()) : Optional.absent();
     }
 
     public static BlockPos getNearestPoint(BlockPos origin, List<BlockPos> blocks) {